@@ -0,0 +1,211 @@
+import metrics.PipelineListener;
+import operations.CropOperation;
+import operations.ImageOperation;
+import operations.InvertOperation;
+import operations.RotateOperation;
+import pipeline.PipelineOptimizer;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * AlgebraCheck.java
+ * -----------------
+ * Checks the algebraic claims every operation makes about itself, by
+ * running it on random images of each type:
+ *
+ *   - changedRegion: the size is kept and no pixel outside the region
+ *     changes (crops must claim nothing);
+ *   - inverse: running the inverse right after the operation gives back
+ *     the original pixels bit for bit;
+ *   - commutesWith: the claim is symmetric, and when it holds both orders
+ *     give the same pixels;
+ *   - PipelineOptimizer, which reorders and cancels steps with these
+ *     claims: optimized pipelines give the same pixels as literal ones.
+ *
+ * Rotations are by right angles, or by an angle in (-45°, 45°) with a
+ * random interpolation.  Operations are drawn from a small pool of
+ * regions (squares, oblong, 1×1, partly and fully outside the image) so
+ * that equal and overlapping regions are common.
+ *
+ * Usage:  java -cp bin AlgebraCheck [--trials 2000] [--pipelines 300]
+ *             [--types INT_RGB,INT_ARGB,3BYTE_BGR,4BYTE_ABGR,BYTE_GRAY]
+ *
+ * Prints how often each claim was made and exits with status 1 if any
+ * claim is wrong.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class AlgebraCheck {
+
+    private static final int W = 97, H = 61;
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        Bench bench = new Bench(args);
+        int trials = bench.intOption("trials", 2000);
+        int pipelines = bench.intOption("pipelines", 300);
+
+        for (String typeName : bench.listOption("types",
+                "INT_RGB,INT_ARGB,3BYTE_BGR,4BYTE_ABGR,BYTE_GRAY")) {
+            int type = Bench.imageType(typeName);
+            Random rnd = new Random(typeName.hashCode());
+            BufferedImage img = noise(type, rnd);
+            List<Rectangle> regions = regionPool(rnd);
+            int inverses = 0, commuting = 0;
+
+            for (int t = 0; t < trials; t++) {
+                ImageOperation a = randomOp(regions, rnd), b = randomOp(regions, rnd);
+                checkChangedRegion(a, img, typeName);
+
+                ImageOperation inv = a.inverse(W, H, type);
+                if (a instanceof CropOperation && inv != null) fail(typeName, a + " claims an inverse");
+                if (inv != null) {
+                    inverses++;
+                    if (!same(inv.apply(a.apply(img)), img)) {
+                        fail(typeName, inv + " does not undo " + a);
+                    }
+                }
+
+                boolean ab = a.commutesWith(b, W, H);
+                if (ab != b.commutesWith(a, W, H)) fail(typeName, "asymmetric: " + a + " / " + b);
+                if (ab) {
+                    commuting++;
+                    if (!same(b.apply(a.apply(img)), a.apply(b.apply(img)))) {
+                        fail(typeName, a + " and " + b + " do not commute");
+                    }
+                }
+            }
+
+            int optimized = 0;
+            for (int p = 0; p < pipelines; p++) {
+                List<ImageOperation> ops = new ArrayList<>();
+                int length = 2 + rnd.nextInt(12);
+                for (int i = 0; i < length; i++) ops.add(randomOp(regions, rnd));
+                BufferedImage literal = literal(img, ops);
+                List<ImageOperation> plan = PipelineOptimizer.optimize(ops, W, H, type);
+                if (plan.size() < ops.size()) optimized++;
+                BufferedImage result;
+                try {
+                    result = ImageEditor.render(img, ops, PipelineListener.NONE);
+                } catch (IllegalArgumentException e) {
+                    result = null;
+                }
+                if (literal == null ? result != null : result == null || !same(literal, result)) {
+                    fail(typeName, "optimized pipeline differs: " + ops);
+                }
+            }
+
+            System.out.printf("  %-11s %5d trials: %5d inverses, %5d commuting pairs; "
+                              + "%d/%d pipelines shortened%n",
+                              typeName, trials, inverses, commuting, optimized, pipelines);
+        }
+
+        System.out.println(failures == 0 ? "  All claims hold." : "  " + failures + " failures.");
+        if (failures > 0) System.exit(1);
+    }
+
+    // ── Claims ────────────────────────────────────────────────────────────
+
+    private static void checkChangedRegion(ImageOperation op, BufferedImage img, String typeName) {
+        Rectangle region = op.changedRegion(W, H);
+        if (op instanceof CropOperation) {
+            if (region != null) fail(typeName, op + " claims a changed region");
+            return;
+        }
+        if (region == null) return;
+        BufferedImage out = op.apply(img);
+        if (out.getWidth() != W || out.getHeight() != H) {
+            fail(typeName, op + " changes the size");
+            return;
+        }
+        for (int y = 0; y < H; y++) {
+            for (int x = 0; x < W; x++) {
+                if (!region.contains(x, y) && !samePixel(img, out, x, y)) {
+                    fail(typeName, op + " changes (" + x + "," + y + ") outside " + region);
+                    return;
+                }
+            }
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private static List<Rectangle> regionPool(Random rnd) {
+        List<Rectangle> pool = new ArrayList<>(List.of(
+            new Rectangle(0, 0, W, H),                 // whole image
+            new Rectangle(-10, -10, 30, 30),           // clamps to 20×20
+            new Rectangle(W - 20, H - 20, 40, 40),     // partly outside
+            new Rectangle(W + 5, 0, 10, 10),           // fully outside
+            new Rectangle(40, 30, 1, 1)));             // one pixel
+        for (int i = 0; i < 8; i++) {
+            int x = rnd.nextInt(W - 10), y = rnd.nextInt(H - 10);
+            int w = 2 + rnd.nextInt(Math.min(30, W - x - 1));
+            int h = i % 2 == 0 ? Math.min(w, H - y - 1) : 2 + rnd.nextInt(Math.min(30, H - y - 1));
+            pool.add(new Rectangle(x, y, w, h));       // even i: square
+        }
+        return pool;
+    }
+
+    private static ImageOperation randomOp(List<Rectangle> regions, Random rnd) {
+        Rectangle r = regions.get(rnd.nextInt(regions.size()));
+        int x2 = r.x + r.width, y2 = r.y + r.height;
+        return switch (rnd.nextInt(6)) {
+            case 0, 1 -> new InvertOperation(r.x, r.y, x2, y2);
+            case 2, 3 -> new RotateOperation(r.x, r.y, x2, y2, 90 * (1 + rnd.nextInt(3)));
+            case 4    -> new RotateOperation(r.x, r.y, x2, y2, rnd.nextDouble() * 90 - 45,
+                             RotateOperation.Interpolation.values()[rnd.nextInt(3)]);
+            default   -> new CropOperation(r.x, r.y, x2, y2);
+        };
+    }
+
+    /** Runs {@code ops} one by one, as written; null if one of them throws. */
+    private static BufferedImage literal(BufferedImage img, List<ImageOperation> ops) {
+        BufferedImage current = img;
+        try {
+            for (ImageOperation op : ops) current = op.apply(current);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return current;
+    }
+
+    /** Random samples in every band, alpha included. */
+    private static BufferedImage noise(int type, Random rnd) {
+        BufferedImage img = new BufferedImage(W, H, type);
+        WritableRaster raster = img.getRaster();
+        for (int y = 0; y < H; y++) {
+            for (int x = 0; x < W; x++) {
+                for (int b = 0; b < raster.getNumBands(); b++) raster.setSample(x, y, b, rnd.nextInt(256));
+            }
+        }
+        return img;
+    }
+
+    private static boolean same(BufferedImage a, BufferedImage b) {
+        if (a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) return false;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (!samePixel(a, b, x, y)) return false;
+            }
+        }
+        return true;
+    }
+
+    /** Compares stored samples, not ARGB, so lossy round trips show up. */
+    private static boolean samePixel(BufferedImage a, BufferedImage b, int x, int y) {
+        return Arrays.equals(a.getRaster().getPixel(x, y, (int[]) null),
+                             b.getRaster().getPixel(x, y, (int[]) null));
+    }
+
+    private static void fail(String typeName, String message) {
+        if (failures++ < 20) System.out.println("  FAIL " + typeName + ": " + message);
+    }
+}
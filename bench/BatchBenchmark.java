@@ -0,0 +1,88 @@
+import operations.ImageOperation;
+import operations.InPlaceOperation;
+import operations.InvertOperation;
+import operations.RasterAccess;
+import operations.RegionBatch;
+import operations.RotateOperation;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * BatchBenchmark.java
+ * -------------------
+ * Many small, non-overlapping invert/rotate regions (a redaction
+ * workload), run three ways on the same image:
+ *
+ *   - apply:    {@code ImageOperation.apply} per step, one full copy each;
+ *   - in-place: one copy, then every step in place, one after another;
+ *   - batched:  one copy, then one {@link RegionBatch} step: the inverts
+ *               in one pass down the rows, the rotations spread over the
+ *               pool.
+ *
+ * Usage:  java -cp bin BatchBenchmark [--sizes 1,10] [--types INT_ARGB,3BYTE_BGR]
+ *             [--counts 50,200] [--sides 16,64] [Bench options…]
+ *
+ * The batched time minus the copy follows the total region area; the
+ * apply time grows with count × image size.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class BatchBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Bench bench = new Bench(args);
+
+        for (double mp : bench.sizes("1,10")) {
+            for (String typeName : bench.listOption("types", "INT_ARGB,3BYTE_BGR")) {
+                BufferedImage img = Bench.randomImage(mp, Bench.imageType(typeName));
+                int w = img.getWidth(), h = img.getHeight();
+                System.out.printf("%n%s  %d×%d  (%d cores)%n", typeName, w, h,
+                                  Runtime.getRuntime().availableProcessors());
+
+                bench.run("copy/" + typeName + "/" + Bench.megapixels(mp), () -> RasterAccess.copy(img));
+                for (String count : bench.listOption("counts", "50,200")) {
+                    for (String side : bench.listOption("sides", "16,64")) {
+                        List<ImageOperation> ops = redactions(Integer.parseInt(count),
+                                                              Integer.parseInt(side), w, h);
+                        List<ImageOperation> plan = RegionBatch.group(ops, w, h);
+                        String suffix = typeName + "/" + Bench.megapixels(mp)
+                                      + "/" + count + "x" + side + "px";
+
+                        bench.run("apply/" + suffix, () -> {
+                            BufferedImage current = img;
+                            for (ImageOperation op : ops) current = op.apply(current);
+                        });
+                        bench.run("in-place/" + suffix, () -> runInPlace(img, ops));
+                        bench.run("batched/" + suffix, () -> runInPlace(img, plan));
+                    }
+                }
+            }
+        }
+        bench.finish();
+    }
+
+    /** {@code count} square regions on a grid, so none overlap; alternately inverted and rotated. */
+    static List<ImageOperation> redactions(int count, int side, int w, int h) {
+        int cols = Math.max(1, w / (side + 1)), cells = cols * Math.max(1, h / (side + 1));
+        Random rnd = new Random(count * 31L + side);
+        List<ImageOperation> ops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int cell = (int) ((long) i * cells / count) + rnd.nextInt(Math.max(1, cells / count));
+            int x = (cell % cols) * (side + 1), y = (cell / cols) * (side + 1);
+            ops.add(i % 2 == 0 ? new InvertOperation(x, y, x + side, y + side)
+                               : new RotateOperation(x, y, x + side, y + side, 90));
+        }
+        return ops;
+    }
+
+    private static BufferedImage runInPlace(BufferedImage img, List<ImageOperation> ops) {
+        BufferedImage current = RasterAccess.copy(img);
+        for (ImageOperation op : ops) ((InPlaceOperation) op).applyInPlace(current);
+        return current;
+    }
+}
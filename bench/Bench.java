@@ -0,0 +1,203 @@
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bench.java
+ * ----------
+ * Minimal benchmark harness shared by the benchmark programs in bench/.
+ *
+ * Each case is warmed up, then measured for a number of iterations and
+ * reported as throughput (ops/s, best and mean) and allocation rate
+ * (bytes/op and MB/s, from the per-thread allocation counter, i.e. the
+ * same figure JMH's GC profiler reports as gc.alloc.rate).
+ *
+ * Command line options understood by every benchmark program:
+ *   --sizes 1,10,100          image sizes in megapixels
+ *   --types INT_ARGB,...      image types (INT_RGB, INT_ARGB, 3BYTE_BGR, 4BYTE_ABGR, BYTE_GRAY)
+ *   --warmup N --iterations N
+ *   --filter text             only run cases whose name contains text
+ *   --out results.csv         write the results as CSV
+ *   --baseline results.csv    compare against a previous CSV and exit with
+ *   --tolerance 10               status 1 if any case got slower by more
+ *                                than the tolerance (percent)
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class Bench {
+
+    /** One measured case. */
+    public record Result(String name, double opsPerSec, double meanOpsPerSec,
+                         double bytesPerOp, double allocMBPerSec) { }
+
+    private final Map<String, String> options = new LinkedHashMap<>();
+    private final List<Result> results = new ArrayList<>();
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public Bench(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+    }
+
+    // ── Options ───────────────────────────────────────────────────────────
+
+    public String option(String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+
+    public List<String> listOption(String name, String fallback) {
+        return Arrays.asList(option(name, fallback).split(","));
+    }
+
+    public int intOption(String name, int fallback) {
+        return Integer.parseInt(option(name, String.valueOf(fallback)));
+    }
+
+    /** @return image sizes in megapixels */
+    public double[] sizes(String fallback) {
+        return listOption("sizes", fallback).stream().mapToDouble(Double::parseDouble).toArray();
+    }
+
+    /** @return true if the case should run under the current --filter */
+    public boolean selected(String name) {
+        return name.contains(option("filter", ""));
+    }
+
+    // ── Measurement ───────────────────────────────────────────────────────
+
+    /**
+     * Measures one case.  {@code setup} runs before every invocation and is
+     * excluded from both timing and allocation figures; the value it
+     * returns is passed to {@code body}.
+     */
+    public <T> void run(String name, Supplier<T> setup, Consumer<T> body) {
+        if (!selected(name)) return;
+        int warmup = intOption("warmup", 3);
+        int iterations = intOption("iterations", 5);
+
+        for (int i = 0; i < warmup; i++) body.accept(setup.get());
+
+        long best = Long.MAX_VALUE, total = 0, allocated = 0;
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < iterations; i++) {
+            T input = setup.get();
+            long a0 = THREADS.getThreadAllocatedBytes(threadId);
+            long t0 = System.nanoTime();
+            body.accept(input);
+            long elapsed = System.nanoTime() - t0;
+            allocated += THREADS.getThreadAllocatedBytes(threadId) - a0;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+
+        double bytesPerOp = (double) allocated / iterations;
+        Result r = new Result(name, 1e9 / best, 1e9 * iterations / total,
+                              bytesPerOp, bytesPerOp / (1 << 20) * (1e9 * iterations / total));
+        results.add(r);
+        System.out.printf("  %-60s %10.2f ops/s  (mean %8.2f)  %12.0f B/op  %9.1f MB/s%n",
+            r.name(), r.opsPerSec(), r.meanOpsPerSec(), r.bytesPerOp(), r.allocMBPerSec());
+    }
+
+    /** Measures a case without per-invocation setup. */
+    public void run(String name, Runnable body) {
+        run(name, () -> null, ignored -> body.run());
+    }
+
+    // ── Test images ───────────────────────────────────────────────────────
+
+    /** Maps a --types name to its BufferedImage constant. */
+    public static int imageType(String name) {
+        return switch (name) {
+            case "INT_RGB"    -> BufferedImage.TYPE_INT_RGB;
+            case "INT_ARGB"   -> BufferedImage.TYPE_INT_ARGB;
+            case "3BYTE_BGR"  -> BufferedImage.TYPE_3BYTE_BGR;
+            case "4BYTE_ABGR" -> BufferedImage.TYPE_4BYTE_ABGR;
+            case "BYTE_GRAY"  -> BufferedImage.TYPE_BYTE_GRAY;
+            default -> throw new IllegalArgumentException("Unknown image type: " + name);
+        };
+    }
+
+    /** Formats an image size for case names, e.g. "10MP" or "0.5MP". */
+    public static String megapixels(double mp) {
+        return (mp == Math.rint(mp) ? String.valueOf((long) mp) : String.valueOf(mp)) + "MP";
+    }
+
+    /** Returns a square-ish image of roughly {@code megapixels} filled with noise. */
+    public static BufferedImage randomImage(double megapixels, int type) {
+        int side = (int) Math.sqrt(megapixels * 1_000_000);
+        return randomImage(side, side, type);
+    }
+
+    public static BufferedImage randomImage(int w, int h, int type) {
+        BufferedImage img = new BufferedImage(w, h, type);
+        Random rnd = new Random(1);
+        int[] row = new int[w];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) row[x] = rnd.nextInt() | 0xFF000000;
+            img.setRGB(0, y, w, 1, row, 0, w);
+        }
+        return img;
+    }
+
+    // ── Reporting ─────────────────────────────────────────────────────────
+
+    /**
+     * Writes the CSV (if --out is given) and checks --baseline.
+     * Exits the JVM with status 1 when a regression is found.
+     */
+    public void finish() throws IOException {
+        String out = option("out", null);
+        if (out != null) {
+            List<String> lines = new ArrayList<>();
+            lines.add("name,ops_per_sec,mean_ops_per_sec,bytes_per_op,alloc_mb_per_sec");
+            for (Result r : results) {
+                lines.add(String.format(Locale.ROOT, "\"%s\",%.4f,%.4f,%.0f,%.2f",
+                    r.name(), r.opsPerSec(), r.meanOpsPerSec(), r.bytesPerOp(), r.allocMBPerSec()));
+            }
+            Files.write(Path.of(out), lines);
+            System.out.println("  Results written to " + out);
+        }
+
+        String baseline = option("baseline", null);
+        if (baseline == null) return;
+
+        double tolerance = Double.parseDouble(option("tolerance", "10")) / 100;
+        Map<String, Double> before = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(Path.of(baseline));
+        for (String line : lines.subList(1, lines.size())) {
+            int q = line.lastIndexOf('"');
+            before.put(line.substring(1, q), Double.parseDouble(line.substring(q + 2).split(",")[0]));
+        }
+
+        int regressions = 0;
+        for (Result r : results) {
+            Double old = before.get(r.name());
+            if (old != null && r.opsPerSec() < old * (1 - tolerance)) {
+                regressions++;
+                System.out.printf("  [REGRESSION] %s: %.2f → %.2f ops/s%n", r.name(), old, r.opsPerSec());
+            }
+        }
+        System.out.println(regressions == 0
+            ? "  No regressions against " + baseline
+            : "  " + regressions + " regression(s) against " + baseline);
+        if (regressions > 0) System.exit(1);
+    }
+}
@@ -0,0 +1,133 @@
+import operations.ImageOperation;
+import operations.RasterAccess;
+import pipeline.Pipeline;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * ConcurrencyStress.java
+ * ----------------------
+ * Stress check for concurrent rendering: many threads render different
+ * pipelines over one shared {@link SourceImage} at the same time, half of
+ * them through their own {@link ImageEditor} session and half through one
+ * session shared by all.  Every result is compared with a single-threaded
+ * render of the same pipeline, and the source with its state before the
+ * run.
+ *
+ * Usage:  java -Xmx4g -cp bin ConcurrencyStress [--threads 64] [--rounds 10]
+ *             [--pipelines 16] [--length 20] [--sizes 1]
+ *             [--types INT_ARGB,3BYTE_BGR,BYTE_GRAY]
+ *
+ * Exits with status 1 if any render differs or the source was modified.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class ConcurrencyStress {
+
+    public static void main(String[] args) throws InterruptedException {
+        Bench bench = new Bench(args);
+        int threads   = bench.intOption("threads", 64);
+        int rounds    = bench.intOption("rounds", 10);
+        int pipelines = bench.intOption("pipelines", 16);
+        int length    = bench.intOption("length", 20);
+        boolean ok = true;
+
+        for (double mp : bench.sizes("1")) {
+            for (String typeName : bench.listOption("types", "INT_ARGB,3BYTE_BGR,BYTE_GRAY")) {
+                BufferedImage img = Bench.randomImage(mp, Bench.imageType(typeName));
+                SourceImage source = SourceImage.of(img, typeName);
+                long sourceDigest = digest(img);
+
+                // Reference results, rendered one at a time
+                List<Pipeline> cases = new ArrayList<>();
+                long[] expected = new long[pipelines];
+                ImageEditor reference = new ImageEditor(source);
+                for (int p = 0; p < pipelines; p++) {
+                    List<ImageOperation> ops = PipelineBenchmark.randomPipeline(
+                        length, img.getWidth(), img.getHeight(), new Random(p));
+                    cases.add(Pipeline.of(ops));
+                    expected[p] = digest(reference.render(cases.get(p)));
+                }
+
+                ImageEditor shared = new ImageEditor(source);
+                AtomicInteger renders = new AtomicInteger(), mismatches = new AtomicInteger();
+                AtomicInteger failures = new AtomicInteger();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Thread> workers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int id = t;
+                    Thread worker = new Thread(() -> {
+                        ImageEditor session = id % 2 == 0 ? new ImageEditor(source) : shared;
+                        try {
+                            start.await();
+                            for (int r = 0; r < rounds; r++) {
+                                int p = (id * 7 + r) % pipelines;
+                                BufferedImage result;
+                                if (session == shared) {
+                                    result = shared.render(cases.get(p));
+                                } else {
+                                    session.setPipeline(cases.get(p));
+                                    result = session.render(session.getPipeline());
+                                }
+                                renders.incrementAndGet();
+                                if (digest(result) != expected[p]) mismatches.incrementAndGet();
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                            e.printStackTrace();
+                        }
+                    }, "renderer-" + t);
+                    workers.add(worker);
+                    worker.start();
+                }
+
+                long t0 = System.nanoTime();
+                start.countDown();
+                for (Thread worker : workers) worker.join();
+                double seconds = (System.nanoTime() - t0) / 1e9;
+
+                boolean intact = digest(img) == sourceDigest;
+                boolean passed = intact && mismatches.get() == 0 && failures.get() == 0
+                              && renders.get() == threads * rounds;
+                ok &= passed;
+                System.out.printf("%-10s %-6s %3d threads  %5d renders  %.1f renders/s  "
+                        + "%d mismatches  %d failures  source %s  %s%n",
+                    typeName, Bench.megapixels(mp), threads, renders.get(), renders.get() / seconds,
+                    mismatches.get(), failures.get(), intact ? "intact" : "MODIFIED",
+                    passed ? "OK" : "FAILED");
+            }
+        }
+        if (!ok) System.exit(1);
+    }
+
+    /** CRC of the size and packed pixels of {@code img}. */
+    private static long digest(BufferedImage img) {
+        int w = img.getWidth(), h = img.getHeight();
+        int[] row = new int[w];
+        byte[] bytes = new byte[w * 4];
+        CRC32 crc = new CRC32();
+        crc.update(w);
+        crc.update(h);
+        for (int y = 0; y < h; y++) {
+            RasterAccess.readPacked(img, 0, y, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                int v = row[x];
+                bytes[4 * x]     = (byte) v;
+                bytes[4 * x + 1] = (byte) (v >> 8);
+                bytes[4 * x + 2] = (byte) (v >> 16);
+                bytes[4 * x + 3] = (byte) (v >> 24);
+            }
+            crc.update(bytes);
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,72 @@
+import operations.CropOperation;
+import operations.ImageOperation;
+import operations.InvertOperation;
+import operations.RasterAccess;
+import operations.RotateOperation;
+import pipeline.EditHistory;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * HistoryBenchmark.java
+ * ---------------------
+ * Cost of one undo/redo step in {@link EditHistory}, which saves only the
+ * pixels a step overwrites, against taking a full snapshot per step.
+ *
+ * Usage:  java -cp bin HistoryBenchmark [--sizes 1,10]
+ *             [--types INT_ARGB,3BYTE_BGR] [--regions 100,1000]
+ *             [Bench options…]
+ *
+ * {@code --regions} is the side of the square invert/rotate region in
+ * pixels; the crop keeps the image minus a 10% border.  Besides the
+ * timings, the bytes saved per step are printed next to the size of a full
+ * snapshot.  Test images are random noise, the worst case for compression.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class HistoryBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Bench bench = new Bench(args);
+
+        for (double mp : bench.sizes("1,10")) {
+            for (String typeName : bench.listOption("types", "INT_ARGB,3BYTE_BGR")) {
+                BufferedImage img = Bench.randomImage(mp, Bench.imageType(typeName));
+                int w = img.getWidth(), h = img.getHeight();
+                String suffix = typeName + "/" + Bench.megapixels(mp);
+                System.out.printf("%n%s  %d×%d%n", typeName, w, h);
+
+                bench.run("snapshot/" + suffix, () -> RasterAccess.copy(img));
+
+                for (String region : bench.listOption("regions", "100,1000")) {
+                    int side = Math.min(Math.min(w, h), Integer.parseInt(region));
+                    measure(bench, img, new InvertOperation(0, 0, side, side),
+                            "invert/" + suffix + "/" + region);
+                    measure(bench, img, new RotateOperation(0, 0, side, side, 90),
+                            "rotate/" + suffix + "/" + region);
+                }
+                measure(bench, img, new CropOperation(w / 10, h / 10, w - w / 10, h - h / 10),
+                        "crop/" + suffix);
+            }
+        }
+        bench.finish();
+    }
+
+    /** Times apply, and undo followed by redo, of {@code op} on a copy of {@code img}. */
+    private static void measure(Bench bench, BufferedImage img, ImageOperation op, String name) {
+        bench.run("apply/" + name, () -> new EditHistory(RasterAccess.copy(img), Long.MAX_VALUE),
+                  history -> history.apply(op));
+
+        EditHistory history = new EditHistory(RasterAccess.copy(img), Long.MAX_VALUE);
+        history.apply(op);
+        bench.run("undo+redo/" + name, () -> {
+            history.undo();
+            history.redo();
+        });
+        System.out.printf("  %-60s %,12d B saved (snapshot %,d B)%n", "retained/" + name,
+            history.getRetainedBytes(),
+            (long) img.getWidth() * img.getHeight() * img.getColorModel().getPixelSize() / 8);
+    }
+}
@@ -0,0 +1,72 @@
+import operations.InvertKernel;
+import operations.InvertOperation;
+import operations.RasterAccess;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * InvertBenchmark.java
+ * --------------------
+ * Scalar against Vector API inversion ({@link InvertKernel}): the two
+ * kernels XOR every row span of the same raster, then
+ * {@code InvertOperation.applyInPlace} runs with whichever kernel was
+ * selected.
+ *
+ * Usage:  java --add-modules jdk.incubator.vector -cp bin InvertBenchmark
+ *             [--sizes 1,10] [--types INT_ARGB,3BYTE_BGR,4BYTE_ABGR]
+ *             [--widths 100,full] [Bench options…]
+ *
+ * {@code --widths} is the span inverted per row in pixels ("full" is the
+ * whole row), since short spans leave more of each row to the scalar tail.
+ * Without {@code --add-modules} (or with {@code -Dimageeditor.vector=false})
+ * only the scalar kernel is available and the vector cases are skipped.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class InvertBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Bench bench = new Bench(args);
+        List<InvertKernel> kernels = new ArrayList<>(List.of(InvertKernel.SCALAR));
+        if (InvertKernel.SELECTED != InvertKernel.SCALAR) kernels.add(InvertKernel.SELECTED);
+        System.out.println("  Selected kernel: " + InvertKernel.SELECTED.name());
+
+        for (double mp : bench.sizes("1,10")) {
+            for (String typeName : bench.listOption("types", "INT_ARGB,3BYTE_BGR,4BYTE_ABGR")) {
+                BufferedImage img = Bench.randomImage(mp, Bench.imageType(typeName));
+                int w = img.getWidth(), h = img.getHeight();
+                System.out.printf("%n%s  %d×%d%n", typeName, w, h);
+
+                for (String width : bench.listOption("widths", "100,full")) {
+                    int span = width.equals("full") ? w : Math.min(w, Integer.parseInt(width));
+                    String suffix = typeName + "/" + Bench.megapixels(mp) + "/" + width;
+                    for (InvertKernel kernel : kernels) {
+                        bench.run("kernel/" + kernel.name() + "/" + suffix,
+                                  () -> invertRows(kernel, img, span));
+                    }
+                    InvertOperation op = new InvertOperation(0, 0, span, h);
+                    bench.run("applyInPlace/" + suffix, () -> op.applyInPlace(img));
+                }
+            }
+        }
+        bench.finish();
+    }
+
+    /** Inverts the first {@code span} pixels of every row, as InvertOperation does. */
+    private static void invertRows(InvertKernel kernel, BufferedImage img, int span) {
+        int w = img.getWidth(), h = img.getHeight();
+        if (RasterAccess.isIntBacked(img)) {
+            int[] data = RasterAccess.ints(img);
+            for (int y = 0; y < h; y++) kernel.xor(data, y * w, y * w + span, 0x00FFFFFF);
+        } else {
+            byte[] data = RasterAccess.bytes(img);
+            int px = RasterAccess.pixelStride(img);
+            int mask = px == 4 ? 0x00FFFFFF : -1;
+            for (int y = 0; y < h; y++) kernel.xor(data, y * w * px, (y * w + span) * px, mask);
+        }
+    }
+}
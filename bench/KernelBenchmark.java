@@ -0,0 +1,161 @@
+import operations.CropOperation;
+import operations.ImageOperation;
+import operations.InvertOperation;
+import operations.RotateOperation;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * KernelBenchmark.java
+ * --------------------
+ * Before/after comparison of the pixel kernels: the original per-pixel
+ * getRGB/setRGB loops (kept here verbatim as the "before" reference)
+ * against the current direct-raster operations.
+ *
+ * Before timing, every operation is also run on {@code getSubimage}
+ * views (which share their parent's longer rows) and checked against the
+ * same operation on a standalone copy of the view; the program exits with
+ * status 1 if they differ.
+ *
+ * Usage:  java -cp bin KernelBenchmark [megapixels]   (default 40)
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class KernelBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int RUNS   = 5;
+
+    public static void main(String[] args) {
+        double mp = args.length > 0 ? Double.parseDouble(args[0]) : 40;
+        int side = (int) Math.sqrt(mp * 1_000_000);
+
+        for (int type : new int[] { BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR }) {
+            BufferedImage img = Bench.randomImage(side, side, type);
+            String name = type == BufferedImage.TYPE_INT_ARGB ? "INT_ARGB" : "3BYTE_BGR";
+            System.out.printf("%n%s  %d×%d%n", name, side, side);
+            checkSubimages(name, type);
+
+            int q = side / 4;
+            ImageOperation invert = new InvertOperation(0, 0, side, side);
+            ImageOperation rotate = new RotateOperation(q, q, 3 * q, 3 * q, 90);
+            ImageOperation crop   = new CropOperation(q, q, 3 * q, 3 * q);
+
+            report("invert (full image)",
+                time(() -> legacyInvert(img, 0, 0, side, side)), time(() -> invert.apply(img)));
+            report("rotate 90° (half region)",
+                time(() -> legacyRotate90(img, q, q, 3 * q, 3 * q)), time(() -> rotate.apply(img)));
+            report("crop (half region)",
+                time(() -> legacyCrop(img, q, q, 3 * q, 3 * q)), time(() -> crop.apply(img)));
+        }
+    }
+
+    // ── Sub-image check ───────────────────────────────────────────────────
+
+    /** Runs each operation on views of a wider image and on standalone copies of them. */
+    private static void checkSubimages(String name, int type) {
+        BufferedImage parent = Bench.randomImage(120, 90, type);
+        int[][] views = { { 0, 0, 50, 40 }, { 30, 20, 60, 45 }, { 0, 10, 120, 70 } };
+        boolean ok = true;
+        for (int[] v : views) {
+            BufferedImage view = parent.getSubimage(v[0], v[1], v[2], v[3]);
+            BufferedImage copy = new BufferedImage(v[2], v[3], type);
+            for (int y = 0; y < v[3]; y++) {
+                for (int x = 0; x < v[2]; x++) copy.setRGB(x, y, view.getRGB(x, y));
+            }
+            for (ImageOperation op : List.of(new InvertOperation(3, 2, 41, 30),
+                                             new RotateOperation(5, 4, 35, 30, 90),
+                                             new CropOperation(2, 3, 44, 37))) {
+                if (!sameRgb(op.apply(view), op.apply(copy))) {
+                    System.out.printf("  MISMATCH %s on %s sub-image %d,%d %d×%d%n",
+                                      op, name, v[0], v[1], v[2], v[3]);
+                    ok = false;
+                }
+            }
+        }
+        if (!ok) System.exit(1);
+        System.out.println("  sub-image views match standalone copies");
+    }
+
+    private static boolean sameRgb(BufferedImage a, BufferedImage b) {
+        if (a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) return false;
+        for (int y = 0; y < a.getHeight(); y++) {
+            for (int x = 0; x < a.getWidth(); x++) {
+                if (a.getRGB(x, y) != b.getRGB(x, y)) return false;
+            }
+        }
+        return true;
+    }
+
+    // ── Harness ───────────────────────────────────────────────────────────
+
+    private static double time(Runnable r) {
+        for (int i = 0; i < WARMUP; i++) r.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long t0 = System.nanoTime();
+            r.run();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best / 1e6;
+    }
+
+    private static void report(String label, double beforeMs, double afterMs) {
+        System.out.printf("  %-26s before %9.1f ms   after %8.1f ms   ×%.1f%n",
+            label, beforeMs, afterMs, beforeMs / afterMs);
+    }
+
+    // ── Original kernels ("before") ───────────────────────────────────────
+
+    private static BufferedImage legacyCopy(BufferedImage src) {
+        BufferedImage copy = new BufferedImage(src.getWidth(), src.getHeight(), src.getType());
+        copy.getGraphics().drawImage(src, 0, 0, null);
+        return copy;
+    }
+
+    private static BufferedImage legacyCrop(BufferedImage img, int x1, int y1, int x2, int y2) {
+        BufferedImage cropped = new BufferedImage(x2 - x1, y2 - y1, img.getType());
+        cropped.getGraphics().drawImage(img.getSubimage(x1, y1, x2 - x1, y2 - y1), 0, 0, null);
+        return cropped;
+    }
+
+    private static BufferedImage legacyInvert(BufferedImage img, int x1, int y1, int x2, int y2) {
+        BufferedImage result = legacyCopy(img);
+        for (int y = y1; y < y2; y++) {
+            for (int x = x1; x < x2; x++) {
+                int argb = result.getRGB(x, y);
+                int a = (argb >> 24) & 0xFF;
+                int r = 255 - ((argb >> 16) & 0xFF);
+                int g = 255 - ((argb >>  8) & 0xFF);
+                int b = 255 - ( argb        & 0xFF);
+                result.setRGB(x, y, (a << 24) | (r << 16) | (g << 8) | b);
+            }
+        }
+        return result;
+    }
+
+    private static BufferedImage legacyRotate90(BufferedImage img, int x1, int y1, int x2, int y2) {
+        BufferedImage result = legacyCopy(img);
+        int rW = x2 - x1, rH = y2 - y1;
+        int[][] pixels = new int[rH][rW];
+        for (int y = 0; y < rH; y++)
+            for (int x = 0; x < rW; x++)
+                pixels[y][x] = result.getRGB(x1 + x, y1 + y);
+        int[][] dst = new int[rW][rH];
+        for (int y = 0; y < rH; y++)
+            for (int x = 0; x < rW; x++)
+                dst[x][rH - 1 - y] = pixels[y][x];
+        for (int y = y1; y < y2; y++)
+            for (int x = x1; x < x2; x++)
+                result.setRGB(x, y, 0xFF000000);
+        int pasteX = x1 + (rW - rH) / 2, pasteY = y1 + (rH - rW) / 2;
+        for (int y = 0; y < rW; y++)
+            for (int x = 0; x < rH; x++) {
+                int dx = pasteX + x, dy = pasteY + y;
+                if (dx >= x1 && dx < x2 && dy >= y1 && dy < y2) result.setRGB(dx, dy, dst[y][x]);
+            }
+        return result;
+    }
+}
@@ -0,0 +1,57 @@
+import operations.CropOperation;
+import operations.ImageOperation;
+import operations.InvertOperation;
+import operations.RotateOperation;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * OperationBenchmark.java
+ * -----------------------
+ * Throughput and allocation rate of every ImageOperation across image
+ * sizes, image types and region sizes.
+ *
+ * Usage:  java -Xmx8g -cp bin OperationBenchmark [--sizes 1,10,100]
+ *             [--types INT_ARGB,3BYTE_BGR,BYTE_GRAY] [--regions 1,25,100]
+ *             [Bench options…]
+ *
+ * {@code --regions} is the operation's region as a percentage of the image
+ * area.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class OperationBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Bench bench = new Bench(args);
+
+        for (double mp : bench.sizes("1,10,100")) {
+            for (String typeName : bench.listOption("types", "INT_ARGB,3BYTE_BGR,BYTE_GRAY")) {
+                BufferedImage img = Bench.randomImage(mp, Bench.imageType(typeName));
+                int w = img.getWidth(), h = img.getHeight();
+                System.out.printf("%n%s  %d×%d%n", typeName, w, h);
+
+                for (String region : bench.listOption("regions", "1,25,100")) {
+                    // Centred region covering the requested share of the area
+                    double scale = Math.sqrt(Double.parseDouble(region) / 100);
+                    int rw = (int) (w * scale), rh = (int) (h * scale);
+                    int x1 = (w - rw) / 2, y1 = (h - rh) / 2;
+                    int x2 = x1 + rw, y2 = y1 + rh;
+                    String suffix = typeName + "/" + Bench.megapixels(mp) + "/" + region + "%";
+
+                    run(bench, "crop/" + suffix,       new CropOperation(x1, y1, x2, y2), img);
+                    run(bench, "invert/" + suffix,     new InvertOperation(x1, y1, x2, y2), img);
+                    run(bench, "rotate90/" + suffix,   new RotateOperation(x1, y1, x2, y2, 90), img);
+                    run(bench, "rotate180/" + suffix,  new RotateOperation(x1, y1, x2, y2, 180), img);
+                }
+            }
+        }
+        bench.finish();
+    }
+
+    private static void run(Bench bench, String name, ImageOperation op, BufferedImage img) {
+        bench.run(name, () -> op.apply(img));
+    }
+}
@@ -0,0 +1,167 @@
+import operations.CropOperation;
+import operations.ImageOperation;
+import operations.InvertOperation;
+import operations.RotateOperation;
+import pipeline.PipelineOptimizer;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * OptimizerCheck.java
+ * -------------------
+ * Differential check of {@link PipelineOptimizer}: random pipelines are
+ * run on random images twice, once literally (every operation's
+ * {@code apply}, in order) and once as the optimizer's plan, and the two
+ * must agree.  Both must give the same samples, bit for bit, or both must
+ * throw IllegalArgumentException (a crop that misses the image).  The
+ * optimizer must also leave its argument list untouched.
+ *
+ * Every pipeline gets its own image size (1 to 120 pixels per side) and
+ * up to 16 steps: inversions, rotations by right angles or by an
+ * arbitrary angle with a random interpolation, and crops.  Regions are
+ * drawn against the size the image has at that step, mostly inside it
+ * but also partly or fully outside, so crops chain, clamp and fail.
+ *
+ * Usage:  java -cp bin OptimizerCheck [--pipelines 3000] [--seed 1]
+ *             [--types INT_RGB,INT_ARGB,3BYTE_BGR,4BYTE_ABGR,BYTE_GRAY]
+ *
+ * Prints how many pipelines were shortened and failed per type, and exits
+ * with status 1 on any mismatch.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class OptimizerCheck {
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        Bench bench = new Bench(args);
+        int pipelines = bench.intOption("pipelines", 3000);
+        int seed = bench.intOption("seed", 1);
+
+        for (String typeName : bench.listOption("types",
+                "INT_RGB,INT_ARGB,3BYTE_BGR,4BYTE_ABGR,BYTE_GRAY")) {
+            int type = Bench.imageType(typeName);
+            Random rnd = new Random(seed * 31L + typeName.hashCode());
+            int shortened = 0, throwing = 0;
+
+            for (int p = 0; p < pipelines; p++) {
+                int w = 1 + rnd.nextInt(120), h = 1 + rnd.nextInt(120);
+                BufferedImage img = noise(w, h, type, rnd);
+                List<ImageOperation> ops = randomPipeline(w, h, rnd);
+                List<ImageOperation> copy = List.copyOf(ops);
+
+                List<ImageOperation> plan = PipelineOptimizer.optimize(ops, w, h, type);
+                if (!ops.equals(copy)) fail(typeName, "optimize modified its argument: " + copy);
+                if (plan.size() < ops.size()) shortened++;
+
+                BufferedImage literal = run(img, ops), optimized = run(img, plan);
+                if (literal == null) throwing++;
+                if (literal == null ? optimized != null : optimized == null || !same(literal, optimized)) {
+                    fail(typeName, w + "×" + h + " " + ops + "\n      plan " + plan
+                         + (literal == null ? "\n      literal throws, plan does not"
+                            : optimized == null ? "\n      plan throws, literal does not" : ""));
+                }
+            }
+
+            System.out.printf("  %-11s %5d pipelines: %5d shortened, %5d throwing%n",
+                              typeName, pipelines, shortened, throwing);
+        }
+
+        System.out.println(failures == 0 ? "  Plans match literal runs." : "  " + failures + " mismatches.");
+        if (failures > 0) System.exit(1);
+    }
+
+    // ── Pipelines ─────────────────────────────────────────────────────────
+
+    /** Draws each step's region against the image size at that step. */
+    private static List<ImageOperation> randomPipeline(int w, int h, Random rnd) {
+        List<ImageOperation> ops = new ArrayList<>();
+        int length = 1 + rnd.nextInt(16);
+        for (int i = 0; i < length; i++) {
+            int[] r = randomRegion(w, h, rnd);
+            switch (rnd.nextInt(7)) {
+                case 0, 1 -> ops.add(new InvertOperation(r[0], r[1], r[2], r[3]));
+                case 2, 3 -> ops.add(new RotateOperation(r[0], r[1], r[2], r[3], 90 * (1 + rnd.nextInt(3))));
+                case 4    -> ops.add(new RotateOperation(r[0], r[1], r[2], r[3], rnd.nextDouble() * 720 - 360,
+                                 RotateOperation.Interpolation.values()[rnd.nextInt(3)]));
+                default   -> {
+                    ops.add(new CropOperation(r[0], r[1], r[2], r[3]));
+                    int cw = Math.min(w, r[2]) - Math.max(0, r[0]);
+                    int ch = Math.min(h, r[3]) - Math.max(0, r[1]);
+                    if (cw > 0 && ch > 0) {
+                        w = cw;
+                        h = ch;
+                    }
+                }
+            }
+            // Repeat a step now and then, so cancelling pairs are common
+            if (rnd.nextInt(6) == 0) ops.add(ops.get(rnd.nextInt(ops.size())));
+        }
+        return ops;
+    }
+
+    /** @return {x1, y1, x2, y2}: mostly inside, sometimes clamped or outside */
+    private static int[] randomRegion(int w, int h, Random rnd) {
+        return switch (rnd.nextInt(10)) {
+            case 0  -> new int[] { 0, 0, w, h };                                // whole image
+            case 1  -> new int[] { w + rnd.nextInt(5), 0, w + 10, h };          // fully outside
+            case 2  -> new int[] { -rnd.nextInt(10), -rnd.nextInt(10),
+                                   w + rnd.nextInt(10), h + rnd.nextInt(10) };  // clamps
+            default -> {
+                int x1 = rnd.nextInt(w), y1 = rnd.nextInt(h);
+                int side = 1 + rnd.nextInt(Math.min(w - x1, h - y1));
+                yield rnd.nextBoolean()
+                    ? new int[] { x1, y1, x1 + side, y1 + side }                // square
+                    : new int[] { x1, y1, x1 + 1 + rnd.nextInt(w - x1), y1 + 1 + rnd.nextInt(h - y1) };
+            }
+        };
+    }
+
+    /** Runs {@code ops} one by one; null if one of them throws. */
+    private static BufferedImage run(BufferedImage img, List<ImageOperation> ops) {
+        BufferedImage current = img;
+        try {
+            for (ImageOperation op : ops) current = op.apply(current);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return current;
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    /** Random samples in every band, alpha included. */
+    private static BufferedImage noise(int w, int h, int type, Random rnd) {
+        BufferedImage img = new BufferedImage(w, h, type);
+        WritableRaster raster = img.getRaster();
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                for (int b = 0; b < raster.getNumBands(); b++) raster.setSample(x, y, b, rnd.nextInt(256));
+            }
+        }
+        return img;
+    }
+
+    /** Compares stored samples, not ARGB, so lossy round trips show up. */
+    private static boolean same(BufferedImage a, BufferedImage b) {
+        if (a.getWidth() != b.getWidth() || a.getHeight() != b.getHeight()) return false;
+        int[] pa = null, pb = null;
+        for (int y = 0; y < a.getHeight(); y++) {
+            pa = a.getRaster().getPixels(0, y, a.getWidth(), 1, pa);
+            pb = b.getRaster().getPixels(0, y, b.getWidth(), 1, pb);
+            if (!Arrays.equals(pa, pb)) return false;
+        }
+        return true;
+    }
+
+    private static void fail(String typeName, String message) {
+        if (failures++ < 20) System.out.println("  FAIL " + typeName + ": " + message);
+    }
+}
@@ -0,0 +1,55 @@
+import operations.InPlaceOperation;
+import operations.InvertOperation;
+import operations.ParallelTiles;
+import operations.RotateOperation;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ParallelBenchmark.java
+ * ----------------------
+ * Scaling of the tile-parallel invert and rotate kernels with the size of
+ * the ForkJoinPool.  Operations run in place so the figures measure the
+ * kernels, not the full-frame copy.
+ *
+ * Usage:  java -Xmx8g -cp bin ParallelBenchmark [--sizes 100]
+ *             [--threads 1,2,4,8,16,32] [--types INT_ARGB,3BYTE_BGR]
+ *             [Bench options…]
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class ParallelBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Bench bench = new Bench(args);
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("Available processors: " + cores);
+
+        for (double mp : bench.sizes("100")) {
+            for (String typeName : bench.listOption("types", "INT_ARGB,3BYTE_BGR")) {
+                BufferedImage img = Bench.randomImage(mp, Bench.imageType(typeName));
+                int w = img.getWidth(), h = img.getHeight();
+                System.out.printf("%n%s  %d×%d%n", typeName, w, h);
+
+                InPlaceOperation invert = new InvertOperation(0, 0, w, h);
+                InPlaceOperation rotate = new RotateOperation(0, 0, Math.min(w, h), Math.min(w, h), 90);
+
+                for (String t : bench.listOption("threads", "1,2,4,8,16,32")) {
+                    int threads = Integer.parseInt(t);
+                    ForkJoinPool pool = new ForkJoinPool(threads);
+                    ParallelTiles.setPool(pool);
+                    String suffix = typeName + "/" + Bench.megapixels(mp) + "/" + threads + "-threads";
+
+                    bench.run("invert/" + suffix, () -> invert.applyInPlace(img));
+                    bench.run("rotate90/" + suffix, () -> rotate.applyInPlace(img));
+                    pool.shutdown();
+                }
+            }
+        }
+        ParallelTiles.setPool(ForkJoinPool.commonPool());
+        bench.finish();
+    }
+}
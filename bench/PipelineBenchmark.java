@@ -0,0 +1,114 @@
+import operations.CropOperation;
+import operations.ImageOperation;
+import operations.InvertOperation;
+import operations.RotateOperation;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * PipelineBenchmark.java
+ * ----------------------
+ * End-to-end cost of ImageEditor running pipelines of 10–100 randomly
+ * mixed operations: pipeline execution alone (getPreviewImage) and
+ * execution plus encoding (save).
+ *
+ * Usage:  java -Xmx8g -cp bin PipelineBenchmark [--sizes 1,10,100]
+ *             [--types INT_ARGB,3BYTE_BGR,BYTE_GRAY] [--lengths 10,50,100]
+ *             [--save true|false] [Bench options…]
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class PipelineBenchmark {
+
+    private static final PrintStream STDOUT = System.out;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    public static void main(String[] args) throws IOException {
+        Bench bench = new Bench(args);
+        boolean withSave = Boolean.parseBoolean(bench.option("save", "true"));
+
+        File dir = java.nio.file.Files.createTempDirectory("pipeline-bench").toFile();
+        dir.deleteOnExit();
+
+        for (double mp : bench.sizes("1,10,100")) {
+            for (String typeName : bench.listOption("types", "INT_ARGB,3BYTE_BGR,BYTE_GRAY")) {
+                BufferedImage img = Bench.randomImage(mp, Bench.imageType(typeName));
+                File source = new File(dir, "source-" + typeName + "-" + Bench.megapixels(mp) + ".png");
+                File output = new File(dir, "output.png");
+                source.deleteOnExit();
+                output.deleteOnExit();
+                ImageIO.write(img, "png", source);
+                System.out.printf("%n%s  %d×%d%n", typeName, img.getWidth(), img.getHeight());
+
+                for (String length : bench.listOption("lengths", "10,50,100")) {
+                    List<ImageOperation> ops = randomPipeline(
+                        Integer.parseInt(length), img.getWidth(), img.getHeight(), new Random(7));
+                    ImageEditor editor = quietly(() -> {
+                        ImageEditor e = new ImageEditor(source.getPath());
+                        ops.forEach(e::addOperation);
+                        return e;
+                    });
+                    String suffix = typeName + "/" + Bench.megapixels(mp) + "/" + length + "-ops";
+
+                    bench.run("execute/" + suffix, () -> quietly(editor::getPreviewImage));
+                    if (withSave) {
+                        bench.run("save/" + suffix, () -> quietly(() -> {
+                            editor.save(output.getPath());
+                            return null;
+                        }));
+                    }
+                }
+            }
+        }
+        bench.finish();
+    }
+
+    /**
+     * Builds a reproducible pipeline of mixed operations over random regions.
+     * Crops are rare and shallow so long pipelines keep most of the image.
+     */
+    static List<ImageOperation> randomPipeline(int length, int w, int h, Random rnd) {
+        List<ImageOperation> ops = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            int x1 = rnd.nextInt(w), y1 = rnd.nextInt(h);
+            int x2 = rnd.nextInt(w), y2 = rnd.nextInt(h);
+            int kind = rnd.nextInt(10);
+            if (kind == 0) {
+                int dx = Math.max(1, w / 100), dy = Math.max(1, h / 100);
+                ops.add(new CropOperation(dx, dy, w - dx, h - dy));
+                w -= 2 * dx;
+                h -= 2 * dy;
+            } else if (kind < 6) {
+                ops.add(new InvertOperation(x1, y1, x2, y2));
+            } else {
+                ops.add(new RotateOperation(x1, y1, x2, y2, 90 * (1 + rnd.nextInt(3))));
+            }
+        }
+        return ops;
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    interface IOSupplier<T> { T get() throws IOException; }
+
+    /** Runs {@code body} with ImageEditor's console logging discarded. */
+    static <T> T quietly(IOSupplier<T> body) {
+        System.setOut(DISCARD);
+        try {
+            return body.get();
+        } catch (IOException e) {
+            throw new java.io.UncheckedIOException(e);
+        } finally {
+            System.setOut(STDOUT);
+        }
+    }
+}
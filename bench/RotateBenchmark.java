@@ -0,0 +1,54 @@
+import operations.RotateOperation;
+import operations.RotateOperation.Interpolation;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * RotateBenchmark.java
+ * --------------------
+ * Rotation by arbitrary angles with each interpolation against the exact
+ * right-angle path, on the same square region so every variant writes
+ * the same number of pixels.  Operations run in place so the figures
+ * measure the kernels, not the full-frame copy.
+ *
+ * Usage:  java -cp bin RotateBenchmark [--sizes 1,10]
+ *             [--types INT_ARGB,3BYTE_BGR] [--angles 0.5,45]
+ *             [Bench options…]
+ *
+ * The default angles are a typical deskew and the worst case for cache
+ * locality, where consecutive destination pixels walk the source
+ * diagonally.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class RotateBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        Bench bench = new Bench(args);
+
+        for (double mp : bench.sizes("1,10")) {
+            for (String typeName : bench.listOption("types", "INT_ARGB,3BYTE_BGR")) {
+                BufferedImage img = Bench.randomImage(mp, Bench.imageType(typeName));
+                int side = Math.min(img.getWidth(), img.getHeight());
+                String suffix = typeName + "/" + Bench.megapixels(mp);
+                System.out.printf("%n%s  %d×%d region  (%d cores)%n", typeName, side, side,
+                                  Runtime.getRuntime().availableProcessors());
+
+                RotateOperation right = new RotateOperation(0, 0, side, side, 90);
+                bench.run("rotate90/" + suffix, () -> right.applyInPlace(img));
+
+                for (String angle : bench.listOption("angles", "0.5,45")) {
+                    for (Interpolation mode : Interpolation.values()) {
+                        RotateOperation op = new RotateOperation(0, 0, side, side,
+                                                                 Double.parseDouble(angle), mode);
+                        bench.run(mode.name().toLowerCase() + "/" + suffix + "/" + angle + "deg",
+                                  () -> op.applyInPlace(img));
+                    }
+                }
+            }
+        }
+        bench.finish();
+    }
+}
@@ -0,0 +1,151 @@
+import metrics.LatencyRecorder;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ServiceLoad.java
+ * ----------------
+ * Load client for {@link RenderServer} over loopback: {@code concurrency}
+ * clients send {@code requests} renders between them and the client-side
+ * p50/p99 latency, the status codes seen and the server's {@code /stats}
+ * are printed.
+ *
+ * Without {@code --url} a server is started in this process on a free
+ * port.  {@code --distinct N} spreads the requests over N pipelines (each
+ * inverting a slightly different rectangle), so 1 shows coalescing and
+ * source-cache hits, and large values show plain rendering throughput.
+ *
+ * Usage:  java -cp bin ServiceLoad [--url http://127.0.0.1:8080]
+ *             [--image photo.jpg] [--pipeline "invert 0 0 100 100"]
+ *             [--concurrency 32] [--requests 500] [--distinct 8]
+ *             [--workers N] [--queue N] [--format png]
+ *
+ * Exits with status 1 if any request failed other than with 503.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class ServiceLoad {
+
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench(args);
+        int concurrency = bench.intOption("concurrency", 32);
+        int requests    = bench.intOption("requests", 500);
+        int distinct    = bench.intOption("distinct", 8);
+        String format   = bench.option("format", "png");
+
+        byte[] image = imageBytes(bench.option("image", null));
+        RenderServer local = null;
+        String url = bench.option("url", null);
+        if (url == null) {
+            int workers = bench.intOption("workers", Runtime.getRuntime().availableProcessors());
+            local = new RenderServer("127.0.0.1", 0, workers,
+                                     bench.intOption("queue", 4 * workers),
+                                     Runtime.getRuntime().maxMemory() / 4);
+            local.start();
+            url = "http://127.0.0.1:" + local.port();
+        }
+
+        List<URI> targets = new ArrayList<>();
+        String base = bench.option("pipeline", null);
+        for (int i = 0; i < distinct; i++) {
+            String spec = base != null ? base
+                        : "invert " + i + " " + i + " " + (200 + i) + " " + (200 + i)
+                          + "; rotate 0 0 400 400 90";
+            targets.add(URI.create(url + "/render?format=" + format + "&pipeline="
+                + URLEncoder.encode(spec, StandardCharsets.UTF_8).replace("+", "%20")));
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        LatencyRecorder latency = new LatencyRecorder(requests);
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        LongAdder coalesced = new LongAdder();
+        AtomicInteger next = new AtomicInteger(), errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> clients = new ArrayList<>();
+        for (int c = 0; c < concurrency; c++) {
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i; (i = next.getAndIncrement()) < requests; ) {
+                        HttpRequest request = HttpRequest.newBuilder(targets.get(i % targets.size()))
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(image))
+                            .build();
+                        long t0 = System.nanoTime();
+                        HttpResponse<byte[]> response =
+                            client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        long nanos = System.nanoTime() - t0;
+                        statuses.computeIfAbsent(response.statusCode(), k -> new LongAdder()).increment();
+                        if (response.statusCode() == 200) {
+                            latency.record(nanos);
+                            if (response.headers().firstValue("X-Coalesced").orElse("").equals("true")) {
+                                coalesced.increment();
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    errors.incrementAndGet();
+                    System.out.println("  " + e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "client-" + c);
+            clients.add(t);
+            t.start();
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        for (Thread t : clients) t.join();
+        double seconds = (System.nanoTime() - t0) / 1e9;
+
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((k, v) -> counts.put(k, v.sum()));
+        System.out.printf("  %d requests, %d clients, %d pipeline(s), %d-byte image, %s%n",
+            requests, concurrency, distinct, image.length, url);
+        System.out.printf("  %.1f req/s  client p50 %.1f ms  p99 %.1f ms  statuses %s  "
+                + "coalesced %d  errors %d%n",
+            requests / seconds, latency.percentile(50) / 1e6, latency.percentile(99) / 1e6,
+            counts, coalesced.sum(), errors.get());
+
+        HttpResponse<String> stats = client.send(
+            HttpRequest.newBuilder(URI.create(url + "/stats")).build(),
+            HttpResponse.BodyHandlers.ofString());
+        System.out.print("  server /stats: " + stats.body());
+
+        if (local != null) local.stop();
+        boolean ok = errors.get() == 0 && counts.keySet().stream().allMatch(s -> s == 200 || s == 503);
+        if (!ok) System.exit(1);
+    }
+
+    /** The file's bytes, or a random 1 MP PNG if none is given. */
+    private static byte[] imageBytes(String file) throws IOException {
+        if (file != null) return Files.readAllBytes(Path.of(file));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(Bench.randomImage(1, Bench.imageType("3BYTE_BGR")), "png", out);
+        return out.toByteArray();
+    }
+}
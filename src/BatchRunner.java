@@ -0,0 +1,433 @@
+import codec.FrameWriter;
+import codec.ImageDecoder;
+import codec.PngEncoder;
+import metrics.JfrListener;
+import metrics.PipelineListener;
+import metrics.PipelineStats;
+import metrics.RunMetrics;
+import operations.CropOperation;
+import operations.ImageOperation;
+import pipeline.Pipeline;
+import pipeline.PipelineOptimizer;
+import pipeline.ResultCache;
+import tiled.TiledImage;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BatchRunner.java
+ * ----------------
+ * Non-interactive mode: applies one pipeline to every matching file.
+ *
+ *   java -cp bin Main --batch --pipeline "invert 0 0 100 100; crop 0 0 50 50"
+ *                     --input scans/ --output out/ [--threads N] [--format png]
+ *
+ * {@code --input} is a directory (every file ImageIO can read) or a glob
+ * such as {@code scans/*.tif}; {@code --pipeline @file} reads a text or
+ * binary pipeline file (see {@link Pipeline}).  With {@code --format},
+ * inputs that would share an output name keep their extension in it.
+ * Files are processed by a bounded pool of worker threads, each doing
+ * read → operations → write, so while some workers wait on the disk
+ * others keep the CPU busy.  The pool size also bounds how many decoded
+ * images are in memory at once.
+ *
+ * With {@code --out-of-core} each image is decoded strip by strip into a
+ * memory-mapped {@link TiledImage} and encoded straight from it, so
+ * images larger than the heap can be processed; heap use per worker stays
+ * at a few strips whatever the image size.
+ *
+ * Files are decoded through {@link ImageDecoder}: when the optimized
+ * pipeline starts with a crop only that rectangle is decoded, and colour
+ * JPEGs arrive as {@code TYPE_INT_RGB}.
+ *
+ * Queue wait, decode, every operation and encode are timed for each file
+ * and reported to JFR and the JMX {@link PipelineStats};
+ * {@code --metrics run.json} also writes a JSON summary of the run, and
+ * {@code --quiet} leaves out the per-file lines.
+ *
+ * PNG output is compressed on all cores ({@link PngEncoder});
+ * {@code --png-level 0-9} and {@code --png-filter none|sub|up|average|paeth|adaptive}
+ * trade encode time for file size.
+ *
+ * Animated GIFs and multi-page TIFFs are processed frame by frame, up
+ * to {@code --frame-window} frames at once (see {@link FrameRenderer}).
+ *
+ * {@code --result-cache dir} keeps every output in a {@link ResultCache}
+ * (memory plus {@code dir}, {@code --result-cache-mb} on disk, default
+ * 1024); a file whose bytes, pipeline and encoder settings were seen
+ * before is copied from it without being decoded.  Out-of-core runs
+ * bypass the cache.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class BatchRunner {
+
+    /** Per-file outcome, in milliseconds. */
+    private record FileResult(Path file, boolean ok, String error,
+                              double readMs, double processMs, double writeMs,
+                              long pixels) { }
+
+    private final Pipeline pipeline;
+    private final Path outputDir;
+    private final String format;     // null: keep each input's extension
+    private final int threads;
+    private final boolean outOfCore;
+    private final boolean quiet;
+    private final Path metricsFile;  // null: no JSON summary
+    private final PngEncoder png;
+    private final ResultCache results;   // null: always render
+    private final int frameWindow;
+    private final RunMetrics metrics = new RunMetrics();
+    private final PipelineListener listener =
+        PipelineListener.of(PipelineStats.global(), new JfrListener(), metrics);
+
+    BatchRunner(Pipeline pipeline, Path outputDir, String format, int threads,
+                boolean outOfCore, boolean quiet, Path metricsFile, PngEncoder png,
+                ResultCache results, int frameWindow) {
+        this.pipeline  = pipeline;
+        this.outputDir = outputDir;
+        this.format    = format;
+        this.threads   = threads;
+        this.outOfCore = outOfCore;
+        this.quiet     = quiet;
+        this.metricsFile = metricsFile;
+        this.png       = png;
+        this.results   = results;
+        this.frameWindow = frameWindow;
+    }
+
+    /**
+     * Entry point for {@code Main --batch}.
+     *
+     * @param args the arguments after {@code --batch}
+     * @return process exit status: 0 if every file succeeded
+     */
+    static int run(String[] args) {
+        String spec = null, input = null, output = null, format = null, metrics = null;
+        String cacheDir = null;
+        long cacheMb = 1024;
+        int frameWindow = FrameRenderer.DEFAULT_WINDOW;
+        int threads = 2 * Runtime.getRuntime().availableProcessors();
+        boolean outOfCore = false, quiet = false;
+        int pngLevel = PngEncoder.DEFAULT.getLevel();
+        PngEncoder.Filter pngFilter = PngEncoder.DEFAULT.getFilter();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--out-of-core") || args[i].equals("--quiet")) {
+                    if (args[i].equals("--quiet")) quiet = true;
+                    else outOfCore = true;
+                    continue;
+                }
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--pipeline" -> spec    = value;
+                    case "--input"    -> input   = value;
+                    case "--output"   -> output  = value;
+                    case "--format"   -> format  = value;
+                    case "--metrics"  -> metrics = value;
+                    case "--threads"  -> threads = Integer.parseInt(value);
+                    case "--png-level"  -> pngLevel  = Integer.parseInt(value);
+                    case "--png-filter" -> pngFilter = PngEncoder.filterOf(String.valueOf(value));
+                    case "--result-cache"    -> cacheDir = value;
+                    case "--result-cache-mb" -> cacheMb  = Long.parseLong(value);
+                    case "--frame-window"    -> frameWindow = Integer.parseInt(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+                i++;
+            }
+            if (spec == null || input == null || output == null) {
+                throw new IllegalArgumentException("--pipeline, --input and --output are required");
+            }
+            Pipeline pipeline = spec.startsWith("@")
+                ? Pipeline.load(Path.of(spec.substring(1)))
+                : Pipeline.parse(spec);
+
+            ResultCache results = cacheDir == null ? null
+                : new ResultCache(Runtime.getRuntime().maxMemory() / 8, Path.of(cacheDir), cacheMb << 20);
+            BatchRunner runner = new BatchRunner(
+                pipeline, Path.of(output), format, Math.max(1, threads), outOfCore, quiet,
+                metrics == null ? null : Path.of(metrics), new PngEncoder(pngLevel, pngFilter),
+                results, Math.max(1, frameWindow));
+            return runner.process(listInputs(input)) ? 0 : 1;
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("  Error: " + e.getMessage());
+            System.out.println("  Usage: Main --batch --pipeline <spec|@file> --input <dir|glob>"
+                + " --output <dir> [--threads N] [--format ext] [--out-of-core]"
+                + " [--metrics file.json] [--quiet] [--png-level 0-9] [--png-filter name]"
+                + " [--result-cache dir] [--result-cache-mb N] [--frame-window N]");
+            return 2;
+        }
+    }
+
+    // ── Processing ────────────────────────────────────────────────────────
+
+    /**
+     * Processes every file and prints per-file timings and a summary.
+     *
+     * @return true if every file succeeded
+     */
+    boolean process(List<Path> files) throws IOException {
+        Map<Path, Path> outputs = outputFiles(files);
+        Files.createDirectories(outputDir);
+        ImageIO.setUseCache(false);   // decode/encode in memory, not via temp files
+
+        System.out.printf("  Processing %d file(s) with %d thread(s), %d operation(s)%n",
+            files.size(), threads, pipeline.size());
+
+        AtomicInteger done = new AtomicInteger();
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<FileResult>> futures = new ArrayList<>();
+        try {
+            for (Path file : files) {
+                long submitted = System.nanoTime();
+                futures.add(pool.submit(() -> {
+                    listener.queued(file.toString(), System.nanoTime() - submitted);
+                    FileResult r = processFile(file, outputs.get(file));
+                    int index = done.incrementAndGet();
+                    if (!quiet || !r.ok()) report(r, index, files.size());
+                    return r;
+                }));
+            }
+            List<FileResult> results = new ArrayList<>();
+            for (Future<FileResult> f : futures) results.add(f.get());
+            summarize(results, System.nanoTime() - start);
+            if (this.results != null) System.out.println("      result cache: " + this.results);
+            if (metricsFile != null) {
+                Files.writeString(metricsFile, metrics.toJson());
+                System.out.println("  [✓] Metrics → " + metricsFile);
+            }
+            return results.stream().allMatch(FileResult::ok);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private FileResult processFile(Path file, Path out) {
+        if (outOfCore) return processFileTiled(file, out);
+        long t0 = System.nanoTime(), t1 = t0, t2 = t0;
+        try {
+            String key = null;
+            if (results != null) {
+                String encoding = ImageEditor.encoding(ImageEditor.formatOf(out.toString()), png);
+                key = ResultCache.key(ResultCache.digest(file), pipeline, encoding);
+                byte[] cached = key == null ? null : results.get(key);
+                if (cached != null) {
+                    t1 = System.nanoTime();
+                    Files.write(out, cached);
+                    return new FileResult(file, true, null, ms(t1 - t0), 0,
+                                          ms(System.nanoTime() - t1), 0);
+                }
+            }
+
+            if (FrameRenderer.frameCount(file) > 1) return processFrames(file, out, key, t0);
+
+            ImageDecoder.Header header = ImageDecoder.probe(file);
+            if (header == null) throw new IOException("unsupported image format");
+            SourcePlan plan = planSource(pipeline.operations(), header);
+            BufferedImage source = ImageDecoder.read(file, plan.region());
+            if (source == null) throw new IOException("unsupported image format");
+            t1 = System.nanoTime();
+            listener.decoded(file.toString(), t1 - t0,
+                (long) source.getWidth() * source.getHeight());
+
+            BufferedImage result = ImageEditor.render(source, plan.ops(), listener);
+            t2 = System.nanoTime();
+
+            if (key != null) {
+                ByteArrayOutputStream encoded = new ByteArrayOutputStream(1 << 16);
+                ImageEditor.write(result, ImageEditor.formatOf(out.toString()), encoded, png);
+                byte[] bytes = encoded.toByteArray();
+                Files.write(out, bytes);
+                results.put(key, bytes);
+            } else {
+                ImageEditor.write(result, out, png);
+            }
+            long t3 = System.nanoTime();
+            listener.encoded(out.toString(), t3 - t2,
+                (long) result.getWidth() * result.getHeight());
+            return new FileResult(file, true, null, ms(t1 - t0), ms(t2 - t1), ms(t3 - t2),
+                (long) header.width() * header.height());
+        } catch (IOException | RuntimeException e) {
+            return new FileResult(file, false, e.getMessage(), ms(t1 - t0), ms(t2 - t1), 0, 0);
+        }
+    }
+
+    /** Animated GIF or multi-page TIFF: every frame, streamed (see {@link FrameRenderer}). */
+    private FileResult processFrames(Path file, Path out, String key, long t0) throws IOException {
+        FrameRenderer.render(file, out, pipeline.operations(), listener, png, frameWindow);
+        if (key != null && FrameWriter.supports(ImageEditor.formatOf(out.toString()))) {
+            results.put(key, Files.readAllBytes(out));
+        }
+        // Decode, render and encode overlap, so only the total is meaningful
+        return new FileResult(file, true, null, 0, ms(System.nanoTime() - t0), 0, 0);
+    }
+
+    private FileResult processFileTiled(Path file, Path out) {
+        long t0 = System.nanoTime(), t1 = t0, t2 = t0;
+        try {
+            TiledImage source = TiledImage.read(file);
+            long pixels = (long) source.getWidth() * source.getHeight();
+            t1 = System.nanoTime();
+            listener.decoded(file.toString(), t1 - t0, pixels);
+
+            long t3;
+            try (TiledImage result = ImageEditor.renderTiled(source, pipeline.operations(), listener)) {
+                t2 = System.nanoTime();
+                ImageEditor.write(result, out, png);
+                t3 = System.nanoTime();
+                listener.encoded(out.toString(), t3 - t2,
+                    (long) result.getWidth() * result.getHeight());
+            }
+            return new FileResult(file, true, null, ms(t1 - t0), ms(t2 - t1), ms(t3 - t2), pixels);
+        } catch (IOException | RuntimeException e) {
+            return new FileResult(file, false, e.getMessage(), ms(t1 - t0), ms(t2 - t1), 0, 0);
+        }
+    }
+
+    /** The part of a file to decode and the operations to run on it. */
+    private record SourcePlan(Rectangle region, List<ImageOperation> ops) { }
+
+    /**
+     * Optimizes {@code ops} for the image described by {@code header}; if
+     * the plan starts with a crop, only that rectangle needs decoding and
+     * the crop itself is dropped from the operations.
+     */
+    private static SourcePlan planSource(List<ImageOperation> ops, ImageDecoder.Header header) {
+        Rectangle bounds = new Rectangle(header.width(), header.height());
+        List<ImageOperation> plan = PipelineOptimizer.optimize(
+            ops, header.width(), header.height(), header.imageType());
+        if (!plan.isEmpty() && plan.get(0) instanceof CropOperation crop) {
+            Rectangle r = crop.getRegion().intersection(bounds);
+            if (!r.isEmpty()) return new SourcePlan(r, plan.subList(1, plan.size()));
+        }
+        return new SourcePlan(null, ops);   // an empty crop still throws in render
+    }
+
+    /**
+     * Maps every input to its output file.  With {@code --format}, inputs
+     * that would share a name (a.jpg and a.png → a.png) keep their original
+     * extension in it (a.jpg.png, a.png.png), so concurrent workers never
+     * write the same file.
+     *
+     * @throws IllegalArgumentException if two inputs still map to one file
+     *                                  (same name in different directories)
+     */
+    private Map<Path, Path> outputFiles(List<Path> files) {
+        Map<String, Integer> uses = new HashMap<>();
+        for (Path file : files) uses.merge(key(outputName(file)), 1, Integer::sum);
+
+        Map<Path, Path> outputs = new HashMap<>();
+        Map<String, Path> claimed = new HashMap<>();
+        for (Path file : files) {
+            String name = outputName(file);
+            if (format != null && uses.get(key(name)) > 1) name = file.getFileName() + "." + format;
+            Path other = claimed.putIfAbsent(key(name), file);
+            if (other != null) {
+                throw new IllegalArgumentException(
+                    other + " and " + file + " would both be written to " + name);
+            }
+            outputs.put(file, outputDir.resolve(name));
+        }
+        return outputs;
+    }
+
+    private String outputName(Path file) {
+        String name = file.getFileName().toString();
+        if (format == null) return name;
+        int dot = name.lastIndexOf('.');
+        return (dot > 0 ? name.substring(0, dot) : name) + "." + format;
+    }
+
+    /** Output names compare case-insensitively, as on Windows and macOS file systems. */
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    // ── Reporting ─────────────────────────────────────────────────────────
+
+    private static synchronized void report(FileResult r, int index, int total) {
+        if (r.ok()) {
+            System.out.printf(Locale.ROOT,
+                "  [%d/%d] %s  read %.1f ms  ops %.1f ms  write %.1f ms%n",
+                index, total, r.file().getFileName(), r.readMs(), r.processMs(), r.writeMs());
+        } else {
+            System.out.printf("  [%d/%d] %s  FAILED: %s%n",
+                index, total, r.file().getFileName(), r.error());
+        }
+    }
+
+    private static void summarize(List<FileResult> results, long wallNanos) {
+        long ok = results.stream().filter(FileResult::ok).count();
+        long pixels = results.stream().mapToLong(FileResult::pixels).sum();
+        double seconds = wallNanos / 1e9;
+        System.out.printf(Locale.ROOT,
+            "  [✓] %d ok, %d failed in %.2f s  →  %.2f images/s, %.1f MP/s%n",
+            ok, results.size() - ok, seconds, ok / seconds, pixels / 1e6 / seconds);
+        System.out.printf(Locale.ROOT,
+            "      mean per file: read %.1f ms, ops %.1f ms, write %.1f ms%n",
+            mean(results, FileResult::readMs), mean(results, FileResult::processMs),
+            mean(results, FileResult::writeMs));
+    }
+
+    private static double mean(List<FileResult> results,
+                               java.util.function.ToDoubleFunction<FileResult> f) {
+        return results.stream().filter(FileResult::ok).mapToDouble(f).average().orElse(0);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    /** Expands a directory or a glob (in the last path element) into files. */
+    static List<Path> listInputs(String input) throws IOException {
+        Path path = Path.of(input);
+        Path dir;
+        String glob;
+        if (Files.isDirectory(path)) {
+            dir  = path;
+            glob = "*";
+        } else {
+            dir  = path.getParent() != null ? path.getParent() : Path.of(".");
+            glob = path.getFileName().toString();
+        }
+
+        Set<String> readable = Set.of(ImageIO.getReaderFileSuffixes());
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+            for (Path p : stream) {
+                String name = p.getFileName().toString();
+                String ext  = name.substring(name.lastIndexOf('.') + 1).toLowerCase();
+                if (Files.isRegularFile(p) && readable.contains(ext)) files.add(p);
+            }
+        }
+        files.sort(null);
+        if (files.isEmpty()) throw new IllegalArgumentException("No input images match " + input);
+        return files;
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+}
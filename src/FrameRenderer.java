@@ -0,0 +1,160 @@
+import codec.FrameReader;
+import codec.FrameWriter;
+import codec.PngEncoder;
+import metrics.PipelineListener;
+import operations.ImageOperation;
+import operations.ParallelTiles;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * FrameRenderer.java
+ * ------------------
+ * Applies one pipeline to every frame of an animated GIF or multi-page
+ * TIFF.
+ *
+ * Frames are decoded in order on the calling thread ({@link FrameReader};
+ * a GIF must be composited frame after frame anyway) and each is rendered
+ * as a separate task on the {@link ParallelTiles} pool, so frames are
+ * processed on all cores at once.  Results are written in order as soon
+ * as the oldest one is done.  At most {@code window} frames are in flight
+ * between decoder and writer, so memory stays bounded however long the
+ * animation is.
+ *
+ * Formats ImageIO can write as a sequence (GIF, TIFF) get one
+ * multi-frame output; any other output format gets one file per frame,
+ * {@code name-0001.png}, {@code name-0002.png}, …
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class FrameRenderer {
+
+    /** Extensions whose files may hold more than one frame. */
+    private static final Set<String> MULTI_FRAME = Set.of("gif", "tif", "tiff");
+
+    /** Frames in flight by default: enough to keep every core busy. */
+    public static final int DEFAULT_WINDOW = 2 * Runtime.getRuntime().availableProcessors();
+
+    private FrameRenderer() { }
+
+    /**
+     * @return the number of frames in {@code file}; files in formats that
+     *         only hold one image are not opened
+     */
+    public static int frameCount(Path file) throws IOException {
+        return MULTI_FRAME.contains(extension(file)) ? FrameReader.count(file) : 1;
+    }
+
+    /**
+     * Renders every frame of {@code input} into {@code output}.
+     *
+     * @param window frames decoded but not yet written, at most
+     * @return the number of frames written
+     * @throws IOException              if a file cannot be read or written
+     * @throws IllegalArgumentException if an operation does not fit a frame
+     */
+    public static int render(Path input, Path output, List<ImageOperation> ops,
+                             PipelineListener listener, PngEncoder png, int window)
+            throws IOException {
+        if (window < 1) throw new IllegalArgumentException("window must be at least 1");
+        String format = ImageEditor.formatOf(output.toString());
+        ArrayDeque<Future<FrameReader.Frame>> pending = new ArrayDeque<>();
+
+        try (FrameReader frames = FrameReader.open(input);
+             Sink sink = FrameWriter.supports(format)
+                 ? new SequenceSink(new FrameWriter(output, format, frames.loopCount()))
+                 : new NumberedSink(output, format, png)) {
+            while (frames.hasNext()) {
+                long t0 = System.nanoTime();
+                FrameReader.Frame frame = frames.next();
+                BufferedImage image = frame.image();
+                listener.decoded(input + "#" + frame.index(), System.nanoTime() - t0,
+                                 (long) image.getWidth() * image.getHeight());
+
+                pending.add(ParallelTiles.getPool().submit(() -> new FrameReader.Frame(
+                    frame.index(), ImageEditor.render(image, ops, listener), frame.delayMs())));
+                if (pending.size() >= window) write(pending.remove(), sink, output, listener);
+            }
+            while (!pending.isEmpty()) write(pending.remove(), sink, output, listener);
+            return sink.written();
+        } finally {
+            pending.forEach(f -> f.cancel(true));
+        }
+    }
+
+    // ── Output ────────────────────────────────────────────────────────────
+
+    /** Where rendered frames go, in order. */
+    private interface Sink extends AutoCloseable {
+        void write(FrameReader.Frame frame) throws IOException;
+        int written();
+        @Override void close() throws IOException;
+    }
+
+    private record SequenceSink(FrameWriter writer) implements Sink {
+        @Override public void write(FrameReader.Frame f) throws IOException {
+            writer.write(f.image(), f.delayMs());
+        }
+        @Override public int written() { return writer.written(); }
+        @Override public void close() throws IOException { writer.close(); }
+    }
+
+    private static final class NumberedSink implements Sink {
+        private final Path output;
+        private final String format;
+        private final PngEncoder png;
+        private int written;
+
+        NumberedSink(Path output, String format, PngEncoder png) {
+            this.output = output;
+            this.format = format;
+            this.png = png;
+        }
+
+        @Override public void write(FrameReader.Frame f) throws IOException {
+            String name = output.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            String base = dot > 0 ? name.substring(0, dot) : name;
+            ImageEditor.write(f.image(), output.resolveSibling(
+                String.format(Locale.ROOT, "%s-%04d.%s", base, f.index() + 1, format)), png);
+            written++;
+        }
+        @Override public int written() { return written; }
+        @Override public void close() { }
+    }
+
+    /** Waits for the oldest frame and writes it. */
+    private static void write(Future<FrameReader.Frame> next, Sink sink, Path output,
+                              PipelineListener listener) throws IOException {
+        FrameReader.Frame frame;
+        try {
+            frame = next.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering frames", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new UncheckedIOException(new IOException(e.getCause()));
+        }
+        long t0 = System.nanoTime();
+        sink.write(frame);
+        listener.encoded(output + "#" + frame.index(), System.nanoTime() - t0,
+            (long) frame.image().getWidth() * frame.image().getHeight());
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,39 +1,125 @@
+import codec.FrameWriter;
+import codec.PngEncoder;
+import metrics.Allocation;
+import metrics.ConsoleListener;
+import metrics.JfrListener;
+import metrics.PipelineListener;
+import metrics.PipelineStats;
+import operations.CropOperation;
 import operations.ImageOperation;
+import operations.InPlaceOperation;
+import operations.RasterAccess;
+import operations.RegionBatch;
+import operations.ScalableOperation;
+import pipeline.EditHistory;
+import pipeline.MipPyramid;
+import pipeline.Pipeline;
+import pipeline.PipelineOptimizer;
+import pipeline.PreviewCache;
+import pipeline.ResultCache;
+import tiled.TiledImage;
+import tiled.TiledOperation;
 
 import javax.imageio.ImageIO;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
-import java.io.File;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * ImageEditor.java
+ * ----------------
+ * One editing session: an operation pipeline over a decoded
+ * {@link SourceImage}.
+ *
+ * The pipeline is an immutable {@link Pipeline} snapshot; editing methods
+ * replace it, and every render works on the snapshot it started with, so
+ * a session can be edited on one thread while another renders it.  Many
+ * sessions can share one SourceImage (see {@link #ImageEditor(SourceImage,
+ * PipelineListener...)}) and render concurrently without locks: the
+ * source is only read, and each render works on its own copy.
+ *
+ * {@link #removeLastOperation} undoes the last step and {@link #redo}
+ * brings it back.  With {@link #enableHistory} the session also keeps a
+ * full-resolution working image that follows every edit, undo and redo
+ * at the cost of the region each step touches (see {@link EditHistory});
+ * {@link #save} and full-resolution previews then copy that image instead
+ * of rendering the pipeline again.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
 public class ImageEditor {
 
-    private final BufferedImage sourceImage;
-    private final String        sourcePath;
-    /**
-     * The operation pipeline. Exposed for GUI preview only (read-only).
-     */
-    public final List<ImageOperation> pipeline;
+    private final SourceImage source;
+    /** The current pipeline; replaced, never modified, on every edit. */
+    private volatile Pipeline pipeline = Pipeline.EMPTY;
+    /** Snapshots of intermediate preview results (see {@link PreviewCache}). */
+    private volatile PreviewCache previewCache =
+        new PreviewCache(Runtime.getRuntime().maxMemory() / 4, 1);
+    /** Compression level and row filter used when saving PNGs. */
+    private volatile PngEncoder pngEncoder = PngEncoder.DEFAULT;
+    /** Operations undone since the last edit, most recent first; guarded by {@code this}. */
+    private final Deque<ImageOperation> undone = new ArrayDeque<>();
+    /** Working image with undo deltas, or null: off; guarded by {@code this}. */
+    private EditHistory history;
+    /** Encoded outputs of earlier saves (see {@link ResultCache}); null: off. */
+    private volatile ResultCache resultCache;
+    /** Receive timings and progress of every run (see {@link PipelineListener}). */
+    private final List<PipelineListener> listeners = new CopyOnWriteArrayList<>();
 
     /**
-     * Loads an image from disk.
+     * Loads an image from disk.  Progress is printed to stdout, and timings
+     * go to JFR and the JMX {@link PipelineStats}.
      *
      * @param filepath path to the source image file
      * @throws IOException           if the file cannot be read
      * @throws IllegalArgumentException if the file does not exist
      */
     public ImageEditor(String filepath) throws IOException {
-        File file = new File(filepath);
-        if (!file.exists()) {
-            throw new IllegalArgumentException("File not found: " + filepath);
-        }
-        this.sourcePath  = filepath;
-        this.sourceImage = ImageIO.read(file);
-        this.pipeline    = new ArrayList<>();
+        this(filepath, new ConsoleListener(), new JfrListener(), PipelineStats.global());
+    }
+
+    /**
+     * Loads an image from disk, reporting to the given listeners only
+     * (none: silent, e.g. for hot loops).
+     *
+     * @param filepath  path to the source image file
+     * @param listeners receive the decode time and every later run
+     * @throws IOException           if the file cannot be read
+     * @throws IllegalArgumentException if the file does not exist
+     */
+    public ImageEditor(String filepath, PipelineListener... listeners) throws IOException {
+        long start = System.nanoTime();
+        this.source = SourceImage.load(filepath);
+        this.listeners.addAll(List.of(listeners));
+        listener().decoded(filepath, System.nanoTime() - start,
+            (long) source.getWidth() * source.getHeight());
 
         System.out.printf("  [✓] Loaded '%s'  (%d×%d px)%n",
-            filepath, sourceImage.getWidth(), sourceImage.getHeight());
+            filepath, source.getWidth(), source.getHeight());
+    }
+
+    /**
+     * Starts a session on an already decoded source, e.g. one per request
+     * over a source shared by all of them.  Nothing is decoded or copied.
+     *
+     * @param source    the shared source image
+     * @param listeners receive every run of this session
+     */
+    public ImageEditor(SourceImage source, PipelineListener... listeners) {
+        if (source == null) throw new IllegalArgumentException("source must not be null");
+        this.source = source;
+        this.listeners.addAll(List.of(listeners));
     }
 
     // ── Pipeline management ───────────────────────────────────────────────
@@ -44,28 +130,217 @@ public class ImageEditor {
      *
      * @param operation the operation to add
      * @return this editor (for method chaining)
+     * @throws IllegalArgumentException if the history is on and the
+     *                                  operation does not fit its image
      */
     public ImageEditor addOperation(ImageOperation operation) {
-        pipeline.add(operation);
+        synchronized (this) {
+            if (history != null) history.apply(operation);
+            pipeline = pipeline.append(operation);
+            undone.clear();
+        }
         System.out.println("  [+] Added: " + operation);
         return this;
     }
 
+    /**
+     * Appends every operation of a stored pipeline (text or binary file,
+     * see {@link Pipeline}).
+     *
+     * @param path pipeline file
+     * @return this editor (for method chaining)
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public ImageEditor loadPipeline(String path) throws IOException {
+        Pipeline.load(Path.of(path)).operations().forEach(this::addOperation);
+        return this;
+    }
+
+    /** @return the current pipeline; an immutable snapshot */
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
+    /** Replaces the whole pipeline. */
+    public synchronized void setPipeline(Pipeline newPipeline) {
+        if (newPipeline == null) throw new IllegalArgumentException("pipeline must not be null");
+        if (history != null) history = newHistory(newPipeline, history.getBudgetBytes());
+        pipeline = newPipeline;
+        undone.clear();
+    }
+
+    /**
+     * Writes the current pipeline to a file: binary if the name ends in
+     * ".ipl", text otherwise.
+     *
+     * @param path destination file
+     * @throws IOException if the file cannot be written
+     */
+    public void savePipeline(String path) throws IOException {
+        pipeline.save(Path.of(path));
+        System.out.println("  [✓] Pipeline saved → " + path);
+    }
+
+    /**
+     * Removes the most recently added operation (undo); {@link #redo} adds
+     * it back.  With the default preview cache the previous result is still
+     * cached, so the next preview is free.
+     *
+     * @return the removed operation, or null if the pipeline was empty
+     */
+    public ImageOperation removeLastOperation() {
+        ImageOperation removed;
+        synchronized (this) {
+            Pipeline current = pipeline;
+            if (current.isEmpty()) return null;
+            removed = current.operations().get(current.size() - 1);
+            pipeline = current.withoutLast();
+            undone.push(removed);
+            // A step forgotten under the budget can only be rebuilt
+            if (history != null && history.undo() == null) {
+                history = newHistory(pipeline, history.getBudgetBytes());
+            }
+        }
+        System.out.println("  [-] Removed: " + removed);
+        return removed;
+    }
+
+    /**
+     * Re-appends the operation most recently removed by
+     * {@link #removeLastOperation}.  Any other edit forgets what could be
+     * redone.
+     *
+     * @return the operation added back, or null if there is none
+     */
+    public ImageOperation redo() {
+        ImageOperation redone;
+        synchronized (this) {
+            redone = undone.poll();
+            if (redone == null) return null;
+            pipeline = pipeline.append(redone);
+            if (history != null && history.redo() == null) history.apply(redone);   // rebuilt
+        }
+        System.out.println("  [+] Redone: " + redone);
+        return redone;
+    }
+
     /** Removes all pending operations without saving. */
     public void clearOperations() {
-        pipeline.clear();
+        synchronized (this) {
+            pipeline = Pipeline.EMPTY;
+            undone.clear();
+            if (history != null) history = newHistory(pipeline, history.getBudgetBytes());
+        }
+        previewCache.clear();
         System.out.println("  [!] Pipeline cleared.");
     }
 
+    /**
+     * Keeps a full-resolution working image that every later edit, undo
+     * and redo updates directly, saving per step only the pixels it
+     * overwrites (see {@link EditHistory}).  The current pipeline is
+     * applied to it once, and those steps can be undone too.  From then
+     * on {@link #addOperation} rejects an operation that does not fit the
+     * image.
+     *
+     * @param budgetBytes maximum size of the saved undo pixels
+     * @throws IllegalArgumentException if the current pipeline does not fit the image
+     */
+    public synchronized void enableHistory(long budgetBytes) {
+        history = newHistory(pipeline, budgetBytes);
+    }
+
+    /** {@link #enableHistory(long)} with an eighth of the heap for undo pixels. */
+    public void enableHistory() {
+        enableHistory(Runtime.getRuntime().maxMemory() / 8);
+    }
+
+    /** @return the edit history, or null unless {@link #enableHistory} was called */
+    public synchronized EditHistory getHistory() {
+        return history;
+    }
+
+    private EditHistory newHistory(Pipeline ops, long budgetBytes) {
+        EditHistory h = new EditHistory(deepCopy(source.image()), budgetBytes);
+        ops.operations().forEach(h::apply);
+        return h;
+    }
+
+    /**
+     * @return a copy of the history's working image if the history is on
+     *         and has exactly {@code ops} applied, else null
+     */
+    private synchronized BufferedImage historyImage(List<ImageOperation> ops) {
+        if (history == null || !history.pipeline().operations().equals(ops)) return null;
+        return deepCopy(history.image());
+    }
+
+    /**
+     * Replaces the preview cache.
+     *
+     * @param budgetBytes maximum memory for cached intermediate images
+     * @param interval    snapshot every {@code interval} steps (1 = every step)
+     */
+    public void setPreviewCache(long budgetBytes, int interval) {
+        previewCache = new PreviewCache(budgetBytes, interval);
+    }
+
+    /** Sets the compression level and row filter for saved PNGs. */
+    public void setPngEncoder(PngEncoder encoder) {
+        if (encoder == null) throw new IllegalArgumentException("encoder must not be null");
+        pngEncoder = encoder;
+    }
+
+    /**
+     * Makes {@link #save} look up its output in {@code cache} first and
+     * store it there after rendering; null turns the lookup off.  A cache
+     * may be shared by any number of editors.
+     */
+    public void setResultCache(ResultCache cache) {
+        resultCache = cache;
+    }
+
+    /** @return the result cache, or null if none is set */
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /** Adds a listener for all later runs (saves and previews). */
+    public void addListener(PipelineListener listener) {
+        listeners.add(listener);
+    }
+
+    /** Removes a listener, e.g. the console output for a quiet run. */
+    public void removeListener(PipelineListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** @return the current listeners */
+    public List<PipelineListener> getListeners() {
+        return List.copyOf(listeners);
+    }
+
+    private PipelineListener listener() {
+        return PipelineListener.of(listeners);
+    }
+
+    /** Previews stay off the console; they run on every GUI change. */
+    private PipelineListener previewListener() {
+        return PipelineListener.of(listeners.stream()
+            .filter(l -> !(l instanceof ConsoleListener)).toList());
+    }
+
     /** Prints the current operation pipeline to stdout. */
     public void previewPipeline() {
-        if (pipeline.isEmpty()) {
+        List<ImageOperation> ops = pipeline.operations();
+        if (ops.isEmpty()) {
             System.out.println("  Pipeline is empty.");
             return;
         }
         System.out.println("  Current pipeline:");
-        for (int i = 0; i < pipeline.size(); i++) {
-            System.out.printf("    %d. %s%n", i + 1, pipeline.get(i));
+        for (int i = 0; i < ops.size(); i++) {
+            System.out.printf("    %d. %s%n", i + 1, ops.get(i));
         }
     }
 
@@ -79,53 +354,360 @@ public class ImageEditor {
      * @throws IOException if the file cannot be written
      */
     public void save(String outputPath) throws IOException {
-        if (pipeline.isEmpty()) {
+        Pipeline snapshot = pipeline;
+        if (snapshot.isEmpty()) {
             System.out.println("  [!] No operations – saving original image.");
         }
 
-        // Work on a working copy; never touch sourceImage
-        BufferedImage current = deepCopy(sourceImage);
-
-        for (ImageOperation op : pipeline) {
-            System.out.println("  Applying " + op + " …");
-            current = op.apply(current);
+        // Same source bytes, pipeline and encoder: copy the earlier output
+        ResultCache cache = resultCache;
+        byte[] digest = cache == null ? null : source.digest();
+        String format = formatOf(outputPath);
+        String key = digest == null ? null
+                   : ResultCache.key(digest, snapshot, encoding(format, pngEncoder));
+        if (key != null) {
+            byte[] cached = cache.get(key);
+            if (cached != null) {
+                Files.write(Path.of(outputPath), cached);
+                System.out.printf("  [✓] Saved → %s  (from result cache)%n", outputPath);
+                return;
+            }
         }
 
-        // Determine format from file extension (default: png)
-        String fmt = outputPath.contains(".")
-            ? outputPath.substring(outputPath.lastIndexOf('.') + 1).toLowerCase()
-            : "png";
+        PipelineListener listener = listener();
+        if (source.frameCount() > 1) {
+            saveFrames(snapshot, outputPath, format, cache, key, listener);
+            return;
+        }
+        // The history already holds the result; otherwise render it
+        BufferedImage current = historyImage(snapshot.operations());
+        if (current == null) current = render(source.image(), snapshot.operations(), listener);
 
-        ImageIO.write(current, fmt, new File(outputPath));
+        long start = System.nanoTime();
+        if (key != null) {
+            ByteArrayOutputStream encoded = new ByteArrayOutputStream(1 << 16);
+            write(current, format, encoded, pngEncoder);
+            byte[] bytes = encoded.toByteArray();
+            Files.write(Path.of(outputPath), bytes);
+            cache.put(key, bytes);
+        } else {
+            write(current, Path.of(outputPath), pngEncoder);
+        }
+        listener.encoded(outputPath, System.nanoTime() - start,
+            (long) current.getWidth() * current.getHeight());
         System.out.printf("  [✓] Saved → %s  (%d×%d px)%n",
             outputPath, current.getWidth(), current.getHeight());
     }
 
+    /**
+     * {@link #save} for animated and multi-page sources: every frame is
+     * re-read from the source file and rendered (see {@link FrameRenderer}).
+     */
+    private void saveFrames(Pipeline snapshot, String outputPath, String format,
+                            ResultCache cache, String key, PipelineListener listener)
+            throws IOException {
+        Path out = Path.of(outputPath);
+        int frames = FrameRenderer.render(Path.of(source.path()), out, snapshot.operations(),
+                                          listener, pngEncoder, FrameRenderer.DEFAULT_WINDOW);
+        boolean oneFile = FrameWriter.supports(format);
+        if (key != null && oneFile) cache.put(key, Files.readAllBytes(out));
+        System.out.printf("  [✓] Saved %d frames → %s%n", frames,
+            oneFile ? outputPath : outputPath + " (one file per frame)");
+    }
+
     /**
      * Returns a deep copy of the source image with all operations applied in order.
      * Used for GUI preview.
+     *
+     * Work resumes from the longest pipeline prefix in the preview cache, and
+     * a snapshot is kept every {@code interval} steps, so appending or
+     * removing the last step only computes what changed.
      * @return BufferedImage with all operations applied
      */
     public BufferedImage getPreviewImage() {
-        BufferedImage img = deepCopy(sourceImage);
-        for (ImageOperation op : pipeline) {
-            img = op.apply(img);
+        return renderPreview(pipeline.operations());
+    }
+
+    /**
+     * Renders {@code snapshot} at full resolution over this session's
+     * source.  Touches no session state, so any number of threads may call
+     * it at once, on one session or on many sharing a source.
+     *
+     * @return a new image; the source is never modified
+     */
+    public BufferedImage render(Pipeline snapshot) {
+        return render(source.image(), snapshot.operations(), listener());
+    }
+
+    /**
+     * Same as {@link #getPreviewImage()} for a snapshot of the pipeline taken
+     * by the caller, so it can run on a background thread while the pipeline
+     * keeps changing.  The render checks for interruption between steps and
+     * gives up with a {@link CancellationException}; the snapshots cached
+     * until then are kept, so the next render resumes from them.
+     *
+     * @param ops the operations to apply, in order
+     * @return a new image with all operations applied
+     * @throws CancellationException if the thread is interrupted
+     */
+    public BufferedImage renderPreview(List<ImageOperation> ops) {
+        return renderPreview(ops, 0);
+    }
+
+    /**
+     * Renders {@code ops} on mip level {@code level} of the source, with
+     * every operation's coordinates scaled to match (see
+     * {@link ScalableOperation}).  The result is {@code 2^level} times
+     * smaller than the real output, which makes previews of very large
+     * images interactive; {@link #save} always renders full resolution.
+     * At level 0 with the history on, the history's image is copied
+     * instead.
+     *
+     * @param ops   the operations to apply, in order
+     * @param level mip level from {@link #previewLevel}; must be 0 unless
+     *              every operation is scalable
+     * @return a new image with all operations applied
+     * @throws CancellationException if the thread is interrupted
+     */
+    public BufferedImage renderPreview(List<ImageOperation> ops, int level) {
+        if (level == 0) {
+            BufferedImage edited = historyImage(ops);
+            if (edited != null) return edited;
+        }
+        PipelineListener listener = previewListener();
+        PreviewCache cache = previewCache;
+        PreviewCache.Hit hit = cache.longestPrefix(ops, level);
+
+        int done = hit == null ? 0 : hit.length();
+        BufferedImage current = deepCopy(hit == null ? source.mips().level(level) : hit.image());
+
+        int interval = cache.getInterval();
+        while (done < ops.size()) {
+            if (Thread.interrupted()) throw new CancellationException("Preview cancelled");
+            // Optimize within each chunk; snapshots must match the literal prefix
+            int next = Math.min(ops.size(), (done / interval + 1) * interval);
+            List<ImageOperation> chunk = new ArrayList<>(next - done);
+            for (ImageOperation op : ops.subList(done, next)) {
+                chunk.add(level == 0 ? op : ((ScalableOperation) op).downscaled(level));
+            }
+            List<ImageOperation> plan = PipelineOptimizer.optimize(chunk,
+                current.getWidth(), current.getHeight(), current.getType());
+            current = applyAll(current, plan, listener);
+            done = next;
+            cache.put(ops.subList(0, done), level, deepCopy(current));
+        }
+        return current;
+    }
+
+    /**
+     * Picks the mip level at which {@code ops} should be previewed in a
+     * {@code viewW}×{@code viewH} viewport: the smallest proxy that still
+     * has a pixel for every screen pixel of the (possibly cropped) result.
+     *
+     * @return the level for {@link #renderPreview(List, int)}; 0 if some
+     *         operation cannot be scaled
+     */
+    public int previewLevel(List<ImageOperation> ops, int viewW, int viewH) {
+        int w = getWidth(), h = getHeight();
+        for (ImageOperation op : ops) {
+            if (!(op instanceof ScalableOperation)) return 0;
+            if (op instanceof CropOperation crop) {
+                Rectangle r = crop.getRegion().intersection(new Rectangle(w, h));
+                if (r.isEmpty()) return 0;   // let the full-size render report it
+                w = r.width;
+                h = r.height;
+            }
         }
-        return img;
+        return Math.min(MipPyramid.levelFor(w, h, viewW, viewH), source.mips().maxLevel());
+    }
+
+    /**
+     * Runs {@code ops} on a single working buffer, after
+     * {@link PipelineOptimizer} has rewritten them into an equivalent plan.
+     * Only the initial copy protects {@code source}; operations implementing
+     * {@link InPlaceOperation} then modify that buffer directly, so peak
+     * memory stays around two frames whatever the pipeline length.
+     * Also used by the batch runner, which has no editor per file.
+     *
+     * @param listener receives the plan and each step's timing
+     * @return the working buffer with every operation applied
+     */
+    static BufferedImage render(BufferedImage source, List<ImageOperation> ops,
+                                PipelineListener listener) {
+        List<ImageOperation> plan = PipelineOptimizer.optimize(ops,
+            source.getWidth(), source.getHeight(), source.getType());
+        listener.optimized(ops, plan);
+
+        // Work on a working copy; never touch the source.  A leading crop
+        // (e.g. from the region-of-interest pass) makes that copy itself.
+        if (!plan.isEmpty() && plan.get(0) instanceof CropOperation crop) {
+            BufferedImage cropped = runStep(crop, source, false, listener);
+            return applyAll(cropped, plan.subList(1, plan.size()), listener);
+        }
+        return applyAll(deepCopy(source), plan, listener);
+    }
+
+    /**
+     * Out-of-core counterpart of {@link #render} for images too large for
+     * the heap: runs {@code ops} on a memory-mapped {@link TiledImage}.
+     * Takes ownership of {@code source}; intermediate images are closed as
+     * soon as a step replaces them.
+     *
+     * @return the result, which the caller must close (may be {@code source})
+     * @throws IllegalArgumentException if an operation has no tiled implementation
+     * @throws IOException if a tile file cannot be created or mapped
+     */
+    static TiledImage renderTiled(TiledImage source, List<ImageOperation> ops,
+                                  PipelineListener listener) throws IOException {
+        TiledImage current = source;
+        try {
+            for (ImageOperation op : ops) {
+                if (!(op instanceof TiledOperation)) {
+                    throw new IllegalArgumentException(op + " cannot run out of core");
+                }
+            }
+            List<ImageOperation> plan = PipelineOptimizer.optimize(ops,
+                source.getWidth(), source.getHeight(),
+                source.hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            listener.optimized(ops, plan);
+            for (ImageOperation op : plan) {
+                listener.operationStarted(op);
+                long pixels = (long) current.getWidth() * current.getHeight();
+                long allocated = Allocation.currentThread();
+                long start = System.nanoTime();
+                TiledImage next = ((TiledOperation) op).applyTiled(current);
+                listener.operationFinished(op, System.nanoTime() - start, pixels,
+                                           allocatedSince(allocated));
+                if (next != current) {
+                    current.close();
+                    current = next;
+                }
+            }
+            return current;
+        } catch (IOException | RuntimeException e) {
+            current.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Applies {@code plan} to {@code current}, in place where possible.
+     * Runs of independent region operations are fused into one
+     * {@link RegionBatch} step each.
+     *
+     * @return the resulting image ({@code current} itself unless a step
+     *         produced a new image)
+     */
+    private static BufferedImage applyAll(BufferedImage current, List<ImageOperation> plan,
+                                          PipelineListener listener) {
+        for (ImageOperation op : RegionBatch.group(plan, current.getWidth(), current.getHeight())) {
+            current = runStep(op, current, true, listener);
+        }
+        return current;
+    }
+
+    /**
+     * Runs one step and reports its timing.
+     *
+     * @param owned true if {@code current} is the runner's working buffer,
+     *              which in-place operations may modify
+     */
+    private static BufferedImage runStep(ImageOperation op, BufferedImage current, boolean owned,
+                                         PipelineListener listener) {
+        listener.operationStarted(op);
+        long pixels = (long) current.getWidth() * current.getHeight();
+        long allocated = Allocation.currentThread();
+        long start = System.nanoTime();
+        BufferedImage result;
+        if (owned && op instanceof InPlaceOperation inPlace) {
+            inPlace.applyInPlace(current);
+            result = current;
+        } else {
+            result = op.apply(current);
+        }
+        listener.operationFinished(op, System.nanoTime() - start, pixels,
+                                   allocatedSince(allocated));
+        return result;
+    }
+
+    private static long allocatedSince(long before) {
+        return before < 0 ? -1 : Allocation.currentThread() - before;
     }
 
     // ── Getters ───────────────────────────────────────────────────────────
 
-    public int getWidth()  { return sourceImage.getWidth();  }
-    public int getHeight() { return sourceImage.getHeight(); }
-    public String getSourcePath() { return sourcePath; }
+    /**
+     * @return frames in the source file; previews show the first, and
+     *         {@link #save} renders all of them
+     */
+    public int getFrameCount() throws IOException { return source.frameCount(); }
+
+    public int getWidth()  { return source.getWidth();  }
+    public int getHeight() { return source.getHeight(); }
+    public String getSourcePath() { return source.path(); }
+
+    /** @return the decoded source, for starting more sessions on it */
+    public SourceImage getSource() { return source; }
+
+    /**
+     * The decoded source, shared rather than copied so callers such as the
+     * GUI never decode the file a second time.  Must not be modified.
+     */
+    public BufferedImage getSourceImage() { return source.image(); }
 
     // ── Helper ────────────────────────────────────────────────────────────
 
+    /**
+     * Encodes {@code image} in the format of its extension; PNGs go through
+     * {@code png}, everything else (and images it cannot write) through ImageIO.
+     *
+     * @throws IOException if there is no writer for the format
+     */
+    static void write(BufferedImage image, Path path, PngEncoder png) throws IOException {
+        String format = formatOf(path.toString());
+        if (format.equals("png") && PngEncoder.supports(image)) {
+            png.write(image, path);
+        } else if (!ImageIO.write(image, format, path.toFile())) {
+            throw new IOException("No " + format + " writer for this image");
+        }
+    }
+
+    /** {@link #write(BufferedImage, Path, PngEncoder)} to a stream, in {@code format}. */
+    static void write(BufferedImage image, String format, OutputStream out, PngEncoder png)
+            throws IOException {
+        if (format.equals("png") && PngEncoder.supports(image)) {
+            png.write(image, out);
+        } else if (!ImageIO.write(image, format, out)) {
+            throw new IOException("No " + format + " writer for this image");
+        }
+    }
+
+    /** {@link #write(BufferedImage, Path, PngEncoder)} for out-of-core images. */
+    static void write(TiledImage image, Path path, PngEncoder png) throws IOException {
+        String format = formatOf(path.toString());
+        if (format.equals("png")) png.write(image, path);
+        else image.write(path, format);
+    }
+
+    /**
+     * Describes how {@code format} is encoded, for {@link ResultCache} keys:
+     * the PNG settings change the output bytes, other formats use ImageIO's
+     * defaults.
+     */
+    static String encoding(String format, PngEncoder png) {
+        return format.equals("png")
+            ? "png level=" + png.getLevel() + " filter=" + png.getFilter()
+            : format;
+    }
+
+    /** Determines the output format from the file extension (default: png). */
+    static String formatOf(String path) {
+        return path.contains(".")
+            ? path.substring(path.lastIndexOf('.') + 1).toLowerCase()
+            : "png";
+    }
+
     private static BufferedImage deepCopy(BufferedImage src) {
-        BufferedImage copy = new BufferedImage(
-            src.getWidth(), src.getHeight(), src.getType());
-        copy.createGraphics().drawImage(src, 0, 0, null);
-        return copy;
+        return RasterAccess.copy(src);
     }
 }
\ No newline at end of file
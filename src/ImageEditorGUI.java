@@ -4,18 +4,31 @@ import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import javax.imageio.ImageIO;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import operations.CropOperation;
+import operations.ImageOperation;
 import operations.InvertOperation;
 import operations.RotateOperation;
 
 
 public class ImageEditorGUI extends JFrame {
     private ImageEditor editor;
-    private BufferedImage previewImage;
     private JLabel imageLabel;
     private JFileChooser fileChooser;
-    private String loadedPath;
+
+    // Previews render off the EDT, one at a time; a newer request cancels the
+    // one in flight and only the latest generation may reach the screen.
+    private final ExecutorService renderer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "preview-renderer");
+        t.setDaemon(true);
+        return t;
+    });
+    private Future<?> pendingRender;
+    private long renderGeneration;
 
     public ImageEditorGUI() {
         super("Image Editor");
@@ -36,6 +49,8 @@ public class ImageEditorGUI extends JFrame {
         JButton cropBtn = new JButton("Crop");
         JButton invertBtn = new JButton("Invert");
         JButton rotateBtn = new JButton("Rotate");
+        JButton undoBtn = new JButton("Undo");
+        JButton redoBtn = new JButton("Redo");
         JButton clearBtn = new JButton("Clear Pipeline");
         JButton previewBtn = new JButton("Preview Pipeline");
         JButton saveBtn = new JButton("Save As");
@@ -43,6 +58,8 @@ public class ImageEditorGUI extends JFrame {
         controls.add(cropBtn);
         controls.add(invertBtn);
         controls.add(rotateBtn);
+        controls.add(undoBtn);
+        controls.add(redoBtn);
         controls.add(clearBtn);
         controls.add(previewBtn);
         controls.add(saveBtn);
@@ -55,6 +72,8 @@ public class ImageEditorGUI extends JFrame {
         cropBtn.addActionListener(e -> cropImage());
         invertBtn.addActionListener(e -> invertImage());
         rotateBtn.addActionListener(e -> rotateImage());
+        undoBtn.addActionListener(e -> undoOperation());
+        redoBtn.addActionListener(e -> redoOperation());
         clearBtn.addActionListener(e -> clearPipeline());
         previewBtn.addActionListener(e -> previewPipeline());
         saveBtn.addActionListener(e -> saveImage());
@@ -65,9 +84,8 @@ public class ImageEditorGUI extends JFrame {
             File file = fileChooser.getSelectedFile();
             try {
                 editor = new ImageEditor(file.getAbsolutePath());
-                loadedPath = file.getAbsolutePath();
-                previewImage = ImageIO.read(file);
-                updateImage(previewImage);
+                editor.enableHistory();   // undo/redo restore only the touched region
+                previewPipeline();   // the editor's decoded source, at viewport size
             } catch (IOException ex) {
                 showError("Failed to load image: " + ex.getMessage());
             }
@@ -78,7 +96,13 @@ public class ImageEditorGUI extends JFrame {
         if (editor == null) return;
         int[] rect = promptRect("Crop region");
         if (rect == null) return;
-        editor.addOperation(new CropOperation(rect[0], rect[1], rect[2], rect[3]));
+        try {
+            editor.addOperation(new CropOperation(rect[0], rect[1], rect[2], rect[3]));
+        } catch (IllegalArgumentException e) {
+            showError(e.getMessage());
+            return;
+        }
+        previewPipeline();
         showInfo("Crop operation added to pipeline.");
     }
 
@@ -86,7 +110,13 @@ public class ImageEditorGUI extends JFrame {
         if (editor == null) return;
         int[] rect = promptRect("Invert region");
         if (rect == null) return;
-        editor.addOperation(new InvertOperation(rect[0], rect[1], rect[2], rect[3]));
+        try {
+            editor.addOperation(new InvertOperation(rect[0], rect[1], rect[2], rect[3]));
+        } catch (IllegalArgumentException e) {
+            showError(e.getMessage());
+            return;
+        }
+        previewPipeline();
         showInfo("Invert operation added to pipeline.");
     }
 
@@ -94,28 +124,96 @@ public class ImageEditorGUI extends JFrame {
         if (editor == null) return;
         int[] rect = promptRect("Rotate region");
         if (rect == null) return;
-        String[] options = {"90", "180", "270"};
-        String degStr = (String) JOptionPane.showInputDialog(this, "Degrees:", "Rotate", JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+        String degStr = (String) JOptionPane.showInputDialog(this, "Degrees (clockwise; 90, 180, 270 are exact):", "Rotate", JOptionPane.QUESTION_MESSAGE, null, null, "90");
         if (degStr == null) return;
-        int deg = Integer.parseInt(degStr);
-        editor.addOperation(new RotateOperation(rect[0], rect[1], rect[2], rect[3], deg));
+        double deg;
+        try {
+            deg = Double.parseDouble(degStr.trim());
+        } catch (NumberFormatException e) {
+            showError("Invalid angle: " + degStr);
+            return;
+        }
+        RotateOperation.Interpolation interpolation = RotateOperation.Interpolation.BILINEAR;
+        if (deg % 90 != 0) {
+            RotateOperation.Interpolation[] modes = RotateOperation.Interpolation.values();
+            interpolation = (RotateOperation.Interpolation) JOptionPane.showInputDialog(this, "Interpolation:", "Rotate", JOptionPane.QUESTION_MESSAGE, null, modes, interpolation);
+            if (interpolation == null) return;
+        }
+        try {
+            editor.addOperation(new RotateOperation(rect[0], rect[1], rect[2], rect[3], deg, interpolation));
+        } catch (IllegalArgumentException e) {
+            showError(e.getMessage());
+            return;
+        }
+        previewPipeline();
         showInfo("Rotate operation added to pipeline.");
     }
 
+    private void undoOperation() {
+        if (editor == null) return;
+        if (editor.removeLastOperation() == null) {
+            showInfo("Pipeline is empty.");
+            return;
+        }
+        previewPipeline();
+    }
+
+    private void redoOperation() {
+        if (editor == null) return;
+        if (editor.redo() == null) {
+            showInfo("Nothing to redo.");
+            return;
+        }
+        previewPipeline();
+    }
+
     private void clearPipeline() {
         if (editor == null) return;
         editor.clearOperations();
+        previewPipeline();
         showInfo("Pipeline cleared.");
     }
 
+    /**
+     * Renders the current pipeline on the background thread and shows it
+     * when done.  Called after every pipeline change, so a render still
+     * running for an older pipeline is cancelled first.  The pipeline runs
+     * on the smallest mip level of the source that still fills the label,
+     * so the cost follows the viewport, not the image size.
+     */
     private void previewPipeline() {
         if (editor == null) return;
-        try {
-            BufferedImage img = getPreviewImage();
-            updateImage(img);
-        } catch (Exception ex) {
-            showError("Error previewing pipeline: " + ex.getMessage());
-        }
+        cancelPreview();
+        long generation = renderGeneration;
+        ImageEditor target = editor;
+        List<ImageOperation> ops = editor.getPipeline().operations();   // snapshot on the EDT
+        int viewW = imageLabel.getWidth()  > 0 ? imageLabel.getWidth()  : imageLabel.getPreferredSize().width;
+        int viewH = imageLabel.getHeight() > 0 ? imageLabel.getHeight() : imageLabel.getPreferredSize().height;
+        imageLabel.setText("Rendering…");
+        pendingRender = renderer.submit(() -> {
+            try {
+                int level = target.previewLevel(ops, viewW, viewH);
+                BufferedImage img = fitToView(target.renderPreview(ops, level), viewW, viewH);
+                SwingUtilities.invokeLater(() -> {
+                    if (generation != renderGeneration) return;   // stale
+                    updateImage(img);
+                });
+            } catch (CancellationException ignored) {
+                // superseded by a newer request
+            } catch (RuntimeException ex) {
+                SwingUtilities.invokeLater(() -> {
+                    if (generation == renderGeneration) {
+                        showError("Error previewing pipeline: " + ex.getMessage());
+                    }
+                });
+            }
+        });
+    }
+
+    private void cancelPreview() {
+        renderGeneration++;
+        if (pendingRender != null) pendingRender.cancel(true);
+        imageLabel.setText("");
     }
 
     private void saveImage() {
@@ -153,24 +251,31 @@ public class ImageEditorGUI extends JFrame {
         }
     }
 
-    private BufferedImage getPreviewImage() throws IOException {
-        if (editor == null) return null;
-        // Apply all operations to a copy
-        java.util.List<operations.ImageOperation> ops = new java.util.ArrayList<>(editor.pipeline);
-        BufferedImage img = ImageIO.read(new File(loadedPath));
-        for (operations.ImageOperation op : ops) {
-            img = op.apply(img);
-        }
-        return img;
-    }
-
     private void updateImage(BufferedImage img) {
         if (img == null) return;
-        Image scaled = img.getScaledInstance(imageLabel.getWidth(), imageLabel.getHeight(), Image.SCALE_SMOOTH);
-        imageLabel.setIcon(new ImageIcon(scaled));
+        imageLabel.setIcon(new ImageIcon(img));
         imageLabel.setText("");
     }
 
+    /**
+     * Scales {@code img} to fit the viewport, keeping its aspect ratio.
+     * The preview is at most twice the viewport size, so one bilinear
+     * pass looks as good as an area-averaging scale at a fraction of the cost.
+     */
+    private static BufferedImage fitToView(BufferedImage img, int viewW, int viewH) {
+        double scale = Math.min((double) viewW / img.getWidth(), (double) viewH / img.getHeight());
+        int w = Math.max(1, (int) Math.round(img.getWidth() * scale));
+        int h = Math.max(1, (int) Math.round(img.getHeight() * scale));
+        BufferedImage out = new BufferedImage(w, h, img.getColorModel().hasAlpha()
+            ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                           RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(img, 0, 0, w, h, null);
+        g.dispose();
+        return out;
+    }
+
     private void showError(String msg) {
         JOptionPane.showMessageDialog(this, msg, "Error", JOptionPane.ERROR_MESSAGE);
     }
@@ -1,9 +1,11 @@
 
 import operations.CropOperation;
+import operations.ImageOperation;
 import operations.InvertOperation;
 import operations.RotateOperation;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Scanner;
 
 
@@ -12,6 +14,13 @@ public class Main {
     private static final Scanner sc = new Scanner(System.in);
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            System.exit(BatchRunner.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        if (args.length > 0 && args[0].equals("--serve")) {
+            System.exit(RenderServer.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+
         printBanner();
 
         // ── Load image ────────────────────────────────────────────────
@@ -21,6 +30,7 @@ public class Main {
             String path = sc.nextLine().trim();
             try {
                 editor = new ImageEditor(path);
+                editor.enableHistory();   // undo/redo restore only the touched region
             } catch (IOException | IllegalArgumentException e) {
                 System.out.println("  Error: " + e.getMessage());
             }
@@ -38,6 +48,10 @@ public class Main {
                 case "3" -> doRotate(editor);
                 case "4" -> editor.previewPipeline();
                 case "5" -> editor.clearOperations();
+                case "7" -> editor.removeLastOperation();
+                case "8" -> {
+                    if (editor.redo() == null) System.out.println("  Nothing to redo.");
+                }
                 case "6" -> {
                     doSave(editor);
                     running = false;
@@ -59,7 +73,7 @@ public class Main {
         int y1 = promptInt("    y1: ");
         int x2 = promptInt("    x2: ");
         int y2 = promptInt("    y2: ");
-        editor.addOperation(new CropOperation(x1, y1, x2, y2));
+        add(editor, new CropOperation(x1, y1, x2, y2));
     }
 
     private static void doInvert(ImageEditor editor) {
@@ -68,7 +82,7 @@ public class Main {
         int y1 = promptInt("    y1: ");
         int x2 = promptInt("    x2: ");
         int y2 = promptInt("    y2: ");
-        editor.addOperation(new InvertOperation(x1, y1, x2, y2));
+        add(editor, new InvertOperation(x1, y1, x2, y2));
     }
 
     private static void doRotate(ImageEditor editor) {
@@ -77,13 +91,31 @@ public class Main {
         int y1 = promptInt("    y1: ");
         int x2 = promptInt("    x2: ");
         int y2 = promptInt("    y2: ");
-        int deg;
-        while (true) {
-            deg = promptInt("    Degrees (90 / 180 / 270): ");
-            if (deg == 90 || deg == 180 || deg == 270) break;
-            System.out.println("  Must be 90, 180, or 270.");
+        double deg = promptDouble("    Degrees (clockwise; 90 / 180 / 270 are exact): ");
+        RotateOperation.Interpolation interpolation = RotateOperation.Interpolation.BILINEAR;
+        if (deg % 90 != 0) {
+            while (true) {
+                System.out.print("    Interpolation (nearest / bilinear / bicubic) [bilinear]: ");
+                String s = sc.nextLine().trim().toUpperCase();
+                if (s.isEmpty()) break;
+                try {
+                    interpolation = RotateOperation.Interpolation.valueOf(s);
+                    break;
+                } catch (IllegalArgumentException e) {
+                    System.out.println("  Must be nearest, bilinear, or bicubic.");
+                }
+            }
+        }
+        add(editor, new RotateOperation(x1, y1, x2, y2, deg, interpolation));
+    }
+
+    /** Adds {@code op}, or reports why it does not fit the edited image. */
+    private static void add(ImageEditor editor, ImageOperation op) {
+        try {
+            editor.addOperation(op);
+        } catch (IllegalArgumentException e) {
+            System.out.println("  Error: " + e.getMessage());
         }
-        editor.addOperation(new RotateOperation(x1, y1, x2, y2, deg));
     }
 
     private static void doSave(ImageEditor editor) {
@@ -109,6 +141,19 @@ public class Main {
         }
     }
 
+    private static double promptDouble(String prompt) {
+        while (true) {
+            System.out.print(prompt);
+            try {
+                double value = Double.parseDouble(sc.nextLine().trim());
+                if (Double.isFinite(value)) return value;
+            } catch (NumberFormatException e) {
+                // fall through
+            }
+            System.out.println("  Please enter a number.");
+        }
+    }
+
     private static void printBanner() {
         System.out.println("=".repeat(60));
         System.out.println("  Multimedia & Computer Graphics – Image Editor");
@@ -122,10 +167,12 @@ public class Main {
         Options:
           1 – Crop image  (two corner coordinates)
           2 – Invert colors in a region
-          3 – Rotate a region  (90 / 180 / 270°)
+          3 – Rotate a region  (any angle; 90 / 180 / 270° exact)
           4 – Show pipeline
           5 – Clear pipeline
           6 – Save and exit
+          7 – Undo last operation
+          8 – Redo last undone operation
           0 – Exit without saving
         """);
         System.out.print("Choice: ");
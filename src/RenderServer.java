@@ -0,0 +1,374 @@
+import codec.ImageDecoder;
+import codec.PngEncoder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import metrics.JfrListener;
+import metrics.LatencyRecorder;
+import metrics.PipelineListener;
+import metrics.PipelineStats;
+import pipeline.Pipeline;
+import pipeline.ResultCache;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RenderServer.java
+ * -----------------
+ * Local HTTP service that renders pipelines over uploaded images.
+ *
+ *   java -cp bin Main --serve [--port 8080] [--host 127.0.0.1]
+ *                     [--workers N] [--queue N] [--cache-mb N]
+ *
+ *   POST /render?pipeline=<spec>[&format=png]   body: the encoded image
+ *        → 200 with the rendered image in {@code format}
+ *   GET  /stats
+ *        → JSON counters and p50/p99 latency of the last 10 000 renders
+ *
+ * {@code pipeline} is the text form of {@link Pipeline} (URL-encoded, e.g.
+ * {@code invert%200%200%20100%20100;rotate%2090}).
+ *
+ * Decoded uploads are kept in a {@link SourceCache} keyed by the SHA-256
+ * of their bytes, so re-sending an image skips the decode.  Requests for
+ * the same (image, pipeline, format) that arrive while one is being
+ * rendered wait for that render and get its bytes instead of rendering
+ * again (response header {@code X-Coalesced: true}).
+ *
+ * At most {@code workers} renders run at once and at most {@code queue}
+ * more requests wait for one; anything beyond that is turned away at once
+ * with 503 and {@code Retry-After}, so a burst cannot pile up decoded
+ * images until the heap runs out.  Each admitted request keeps an HTTP
+ * thread while it waits, so the pool is sized to the admission limit.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class RenderServer {
+
+    private static final int    MAX_UPLOAD = 64 << 20;
+    private static final String JSON = "application/json";
+
+    /** A finished render, shared by every request coalesced onto it. */
+    private record Rendered(byte[] bytes, boolean sourceCached) { }
+
+    private final HttpServer server;
+    private final ExecutorService httpThreads;
+    private final int workers, queue;
+    private final Semaphore admission;
+    private final Semaphore rendering;
+    private final SourceCache sources;
+    private final Map<String, CompletableFuture<Rendered>> inFlight = new ConcurrentHashMap<>();
+    private final PipelineListener listener =
+        PipelineListener.of(PipelineStats.global(), new JfrListener());
+    private final PngEncoder png = PngEncoder.DEFAULT;
+
+    private final LatencyRecorder latency = new LatencyRecorder(10_000);
+    private final LongAdder requests = new LongAdder(), rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder(), coalesced = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * Binds the server without starting it.
+     *
+     * @param host       address to listen on (loopback keeps it local)
+     * @param port       port, or 0 for any free one (see {@link #port()})
+     * @param workers    renders allowed to run at once
+     * @param queue      admitted requests allowed to wait for a render
+     * @param cacheBytes budget of the decoded-source cache
+     */
+    public RenderServer(String host, int port, int workers, int queue, long cacheBytes)
+            throws IOException {
+        if (workers < 1) throw new IllegalArgumentException("workers must be positive");
+        if (queue < 0)   throw new IllegalArgumentException("queue must not be negative");
+        this.workers   = workers;
+        this.queue     = queue;
+        this.admission = new Semaphore(workers + queue);
+        this.rendering = new Semaphore(workers);
+        this.sources   = new SourceCache(cacheBytes);
+
+        // One thread per admitted request, plus a few to answer 503s quickly
+        AtomicInteger n = new AtomicInteger();
+        httpThreads = Executors.newFixedThreadPool(workers + queue + 2, r -> {
+            Thread t = new Thread(r, "render-http-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.setExecutor(httpThreads);
+        server.createContext("/render", this::handleRender);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    public void start() {
+        ImageIO.setUseCache(false);
+        server.start();
+    }
+
+    /** Stops accepting requests and waits up to a second for running ones. */
+    public void stop() {
+        server.stop(1);
+        httpThreads.shutdownNow();
+    }
+
+    /** @return the port actually bound */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Entry point for {@code Main --serve}; serves until the process is
+     * killed.
+     *
+     * @param args the arguments after {@code --serve}
+     * @return process exit status
+     */
+    static int run(String[] args) {
+        String host = "127.0.0.1";
+        int port = 8080;
+        int workers = Runtime.getRuntime().availableProcessors();
+        int queue = -1;
+        long cacheBytes = Runtime.getRuntime().maxMemory() / 4;
+        RenderServer server;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                switch (args[i]) {
+                    case "--host"     -> host       = String.valueOf(value);
+                    case "--port"     -> port       = Integer.parseInt(value);
+                    case "--workers"  -> workers    = Integer.parseInt(value);
+                    case "--queue"    -> queue      = Integer.parseInt(value);
+                    case "--cache-mb" -> cacheBytes = Long.parseLong(value) << 20;
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+                i++;
+            }
+            server = new RenderServer(host, port, workers,
+                                      queue < 0 ? 4 * workers : queue, cacheBytes);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("  Error: " + e.getMessage());
+            System.out.println("  Usage: Main --serve [--port N] [--host addr] [--workers N]"
+                + " [--queue N] [--cache-mb N]");
+            return 2;
+        }
+
+        server.start();
+        System.out.printf("  Listening on http://%s:%d  (%d workers, queue %d)%n",
+            host, server.port(), server.workers, server.queue);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            stopped.countDown();
+        }));
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+
+    // ── Handlers ──────────────────────────────────────────────────────────
+
+    private void handleRender(HttpExchange ex) throws IOException {
+        long t0 = System.nanoTime();
+        requests.increment();
+        try (ex) {
+            if (!ex.getRequestMethod().equals("POST")) {
+                drain(ex.getRequestBody());
+                sendText(ex, 405, "Use POST with the image as the body");
+                return;
+            }
+            if (!admission.tryAcquire()) {
+                rejected.increment();
+                drain(ex.getRequestBody());   // so the client sees the 503, not a reset
+                ex.getResponseHeaders().set("Retry-After", "1");
+                sendText(ex, 503, "Busy, try again");
+                return;
+            }
+            active.incrementAndGet();
+            try {
+                render(ex, t0);
+            } finally {
+                active.decrementAndGet();
+                admission.release();
+            }
+        }
+    }
+
+    private void render(HttpExchange ex, long t0) throws IOException {
+        byte[] upload = readBody(ex.getRequestBody());
+        if (upload == null) {
+            sendText(ex, 413, "Image larger than " + (MAX_UPLOAD >> 20) + " MB");
+            return;
+        }
+        Map<String, String> query = query(ex.getRequestURI().getRawQuery());
+        String format = query.getOrDefault("format", "png").toLowerCase(Locale.ROOT);
+        Pipeline pipeline;
+        try {
+            pipeline = Pipeline.parse(query.getOrDefault("pipeline", ""));
+        } catch (IllegalArgumentException e) {
+            sendText(ex, 400, "Bad pipeline: " + e.getMessage());
+            return;
+        }
+        if (!Set.of(ImageIO.getWriterFileSuffixes()).contains(format)) {
+            sendText(ex, 400, "Unknown format: " + format);
+            return;
+        }
+
+        String hash = HexFormat.of().formatHex(ResultCache.digest(upload));
+        String key = hash + '\n' + format + '\n' + pipeline.toText();
+        CompletableFuture<Rendered> mine = new CompletableFuture<>();
+        CompletableFuture<Rendered> leader = inFlight.putIfAbsent(key, mine);
+        Rendered result;
+        try {
+            if (leader != null) {
+                coalesced.increment();
+                result = leader.join();
+            } else {
+                try {
+                    result = renderOnce(hash, upload, pipeline, format);
+                    mine.complete(result);
+                } catch (RuntimeException | IOException | InterruptedException e) {
+                    mine.completeExceptionally(e);
+                    throw e;
+                } finally {
+                    inFlight.remove(key, mine);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendText(ex, 503, "Shutting down");
+            return;
+        } catch (IllegalArgumentException e) {
+            sendText(ex, 400, e.getMessage());
+            return;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            sendText(ex, cause instanceof IllegalArgumentException ? 400 : 500,
+                     String.valueOf(cause.getMessage()));
+            return;
+        } catch (IOException | RuntimeException e) {
+            sendText(ex, 500, String.valueOf(e.getMessage()));
+            return;
+        }
+
+        ex.getResponseHeaders().set("Content-Type", "image/" + (format.equals("jpg") ? "jpeg" : format));
+        ex.getResponseHeaders().set("X-Coalesced", String.valueOf(leader != null));
+        ex.getResponseHeaders().set("X-Source-Cache", result.sourceCached() ? "hit" : "miss");
+        ex.sendResponseHeaders(200, result.bytes().length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(result.bytes());
+        }
+        latency.record(System.nanoTime() - t0);
+    }
+
+    /** Decodes (or reuses) the source, renders and encodes, within a render slot. */
+    private Rendered renderOnce(String hash, byte[] upload, Pipeline pipeline, String format)
+            throws IOException, InterruptedException {
+        rendering.acquire();
+        try {
+            boolean[] decoded = { false };
+            SourceImage source = sources.get(hash, () -> {
+                decoded[0] = true;
+                BufferedImage img = ImageDecoder.read(upload);
+                if (img == null) throw new IllegalArgumentException("Not a readable image");
+                return SourceImage.of(img, hash);
+            });
+            BufferedImage image = new ImageEditor(source, listener).render(pipeline);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 16);
+            ImageEditor.write(image, format, out, png);
+            return new Rendered(out.toByteArray(), !decoded[0]);
+        } finally {
+            rendering.release();
+        }
+    }
+
+    private void handleStats(HttpExchange ex) throws IOException {
+        try (ex) {
+            byte[] body = statsJson().getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().set("Content-Type", JSON);
+            ex.sendResponseHeaders(200, body.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /** @return request counters, source cache use and render latency as JSON */
+    public String statsJson() {
+        return "{\n"
+            + "  \"requests\": " + requests.sum() + ",\n"
+            + "  \"rendered\": " + latency.count() + ",\n"
+            + "  \"rejected\": " + rejected.sum() + ",\n"
+            + "  \"failed\": " + failed.sum() + ",\n"
+            + "  \"coalesced\": " + coalesced.sum() + ",\n"
+            + "  \"active\": " + active.get() + ",\n"
+            + "  \"sourceCache\": { \"hits\": " + sources.hits()
+            + ", \"misses\": " + sources.misses()
+            + ", \"bytes\": " + sources.getUsedBytes() + " },\n"
+            + "  \"p50Ms\": " + ms(latency.percentile(50)) + ",\n"
+            + "  \"p99Ms\": " + ms(latency.percentile(99)) + "\n}\n";
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    private void sendText(HttpExchange ex, int status, String message) throws IOException {
+        if (status >= 400 && status != 503) failed.increment();
+        byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        ex.sendResponseHeaders(status, body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /** @return the whole body, or null if it is larger than {@link #MAX_UPLOAD} */
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] data = in.readNBytes(MAX_UPLOAD + 1);
+        if (data.length <= MAX_UPLOAD) return data;
+        drain(in);
+        return null;
+    }
+
+    /** Reads and discards the rest of a request body. */
+    private static void drain(InputStream in) throws IOException {
+        in.transferTo(OutputStream.nullOutputStream());
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                       URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+}
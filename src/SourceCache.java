@@ -0,0 +1,113 @@
+import pipeline.PreviewCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SourceCache.java
+ * ----------------
+ * Decoded source images keyed by a hash of their encoded bytes, so a
+ * server that receives the same upload again skips the decode.
+ *
+ * Entries are evicted least recently used first once their pixels exceed
+ * the byte budget.  Concurrent misses for the same key decode once: the
+ * first caller decodes, the others wait for its result.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class SourceCache {
+
+    /** Decodes a source on a miss. */
+    @FunctionalInterface
+    public interface Loader {
+        SourceImage load() throws IOException;
+    }
+
+    private final long budgetBytes;
+    private final LinkedHashMap<String, SourceImage> entries =
+        new LinkedHashMap<>(16, 0.75f, true);   // access order = LRU
+    private long usedBytes;
+    private final Map<String, CompletableFuture<SourceImage>> loading = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder();
+
+    /** @param budgetBytes maximum total pixel size of the cached sources */
+    public SourceCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Returns the source cached under {@code key}, decoding it with
+     * {@code loader} if it is not cached yet.
+     *
+     * @throws IOException if the loader fails
+     */
+    public SourceImage get(String key, Loader loader) throws IOException {
+        SourceImage cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        CompletableFuture<SourceImage> mine = new CompletableFuture<>();
+        CompletableFuture<SourceImage> pending = loading.putIfAbsent(key, mine);
+        if (pending != null) {
+            hits.increment();   // someone else is decoding it
+            return await(pending);
+        }
+        misses.increment();
+        try {
+            SourceImage source = loader.load();
+            put(key, source);
+            mine.complete(source);
+            return source;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    public long hits()   { return hits.sum(); }
+    public long misses() { return misses.sum(); }
+
+    /** @return total pixel size of the cached sources */
+    public synchronized long getUsedBytes() { return usedBytes; }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    private synchronized SourceImage lookup(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, SourceImage source) {
+        long size = PreviewCache.sizeOf(source.image());
+        if (size > budgetBytes) return;
+
+        SourceImage old = entries.put(key, source);
+        usedBytes += size - (old == null ? 0 : PreviewCache.sizeOf(old.image()));
+
+        Iterator<Map.Entry<String, SourceImage>> it = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            usedBytes -= PreviewCache.sizeOf(it.next().getValue().image());
+            it.remove();
+        }
+    }
+
+    private static SourceImage await(CompletableFuture<SourceImage> pending) throws IOException {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new UncheckedIOException(new IOException(e.getCause()));
+        }
+    }
+}
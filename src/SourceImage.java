@@ -0,0 +1,130 @@
+import codec.ImageDecoder;
+import pipeline.MipPyramid;
+import pipeline.ResultCache;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * SourceImage.java
+ * ----------------
+ * A decoded image shared by any number of {@link ImageEditor} sessions.
+ *
+ * Decoding once and handing the same SourceImage to many editors lets
+ * request threads render different pipelines over one source at the same
+ * time: rendering only ever reads the pixels, and every session works on
+ * its own copy.  The mip levels used for previews are built once and
+ * shared as well.
+ *
+ * Nothing here copies the pixels, so the image must not be modified after
+ * it has been wrapped.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class SourceImage {
+
+    private final String        path;
+    private final BufferedImage image;
+    private final MipPyramid    mips;
+    /** Size and time of the file when it was decoded; null if not from a file. */
+    private final BasicFileAttributes loaded;
+    private volatile byte[] digest;
+    private volatile int frameCount;   // 0: not counted yet
+
+    private SourceImage(String path, BufferedImage image, BasicFileAttributes loaded) {
+        this.path   = path;
+        this.image  = image;
+        this.mips   = new MipPyramid(image);
+        this.loaded = loaded;
+    }
+
+    /**
+     * Decodes an image file.
+     *
+     * @throws IOException              if the file cannot be read or decoded
+     * @throws IllegalArgumentException if the file does not exist
+     */
+    public static SourceImage load(String filepath) throws IOException {
+        File file = new File(filepath);
+        if (!file.exists()) {
+            throw new IllegalArgumentException("File not found: " + filepath);
+        }
+        BasicFileAttributes loaded = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        BufferedImage image = ImageDecoder.read(file.toPath());
+        if (image == null) throw new IOException("Unsupported image format: " + filepath);
+        return new SourceImage(filepath, image, loaded);
+    }
+
+    /**
+     * Wraps an already decoded image, which must not be modified afterwards.
+     *
+     * @param name shown in place of a file path
+     */
+    public static SourceImage of(BufferedImage image, String name) {
+        if (image == null) throw new IllegalArgumentException("image must not be null");
+        return new SourceImage(name, image, null);
+    }
+
+    /** @return the decoded pixels; shared, must not be modified */
+    public BufferedImage image() { return image; }
+
+    /** @return the file it was loaded from, or the name it was given */
+    public String path() { return path; }
+
+    public int getWidth()  { return image.getWidth(); }
+    public int getHeight() { return image.getHeight(); }
+
+    /**
+     * SHA-256 of the file the image was decoded from, hashed on first use
+     * (see {@link ResultCache}).
+     *
+     * @return the digest, or null if the image did not come from a file or
+     *         the file has changed since it was decoded
+     */
+    public byte[] digest() throws IOException {
+        byte[] d = digest;
+        if (d == null && loaded != null) {
+            Path file = java.nio.file.Path.of(path);
+            if (!unchanged(file)) return null;
+            d = ResultCache.digest(file);
+            if (!unchanged(file)) return null;   // modified while hashing
+            digest = d;
+        }
+        return d;
+    }
+
+    private boolean unchanged(Path file) throws IOException {
+        try {
+            BasicFileAttributes now = Files.readAttributes(file, BasicFileAttributes.class);
+            return now.size() == loaded.size()
+                && now.lastModifiedTime().equals(loaded.lastModifiedTime());
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Frames in the file the image was decoded from (animated GIF,
+     * multi-page TIFF), counted on first use; {@link #image()} is the
+     * first of them.
+     *
+     * @return the count; 1 if the image did not come from a file
+     */
+    public int frameCount() throws IOException {
+        int n = frameCount;
+        if (n == 0) {
+            n = loaded == null ? 1 : FrameRenderer.frameCount(Path.of(path));
+            frameCount = n;
+        }
+        return n;
+    }
+
+    /** Downsampled proxies for previews, built on demand. */
+    MipPyramid mips() { return mips; }
+}
@@ -0,0 +1,206 @@
+package codec;
+
+import operations.RasterAccess;
+import org.w3c.dom.Node;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * FrameReader.java
+ * ----------------
+ * Reads the frames of a multi-frame file (multi-page TIFF, animated GIF)
+ * one at a time, so a caller can process a long animation while holding
+ * only a few decoded frames.
+ *
+ * TIFF pages are returned as decoded.  GIF frames are stored as
+ * sub-rectangles drawn over the previous frame, so they are composited
+ * onto a canvas the size of the animation, following each frame's
+ * disposal method; every frame returned is then the full picture as a
+ * viewer would show it.  The canvas is the only state kept between
+ * frames.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class FrameReader implements AutoCloseable {
+
+    /**
+     * One decoded frame.
+     *
+     * @param index   position in the file, from 0
+     * @param image   the whole frame; owned by the caller
+     * @param delayMs how long it is shown (GIF), 0 if the format has no timing
+     */
+    public record Frame(int index, BufferedImage image, int delayMs) { }
+
+    private static final String GIF_IMAGE  = "javax_imageio_gif_image_1.0";
+    private static final String GIF_STREAM = "javax_imageio_gif_stream_1.0";
+
+    private final ImageInputStream in;
+    private final ImageReader reader;
+    private final int count;
+    private final boolean gif;
+    private int next;
+
+    // GIF composition state
+    private BufferedImage canvas;
+    private int loopCount = -1;
+
+    private FrameReader(ImageInputStream in, ImageReader reader) throws IOException {
+        this.in = in;
+        this.reader = reader;
+        this.gif = reader.getFormatName().equalsIgnoreCase("gif");
+        this.count = reader.getNumImages(true);
+    }
+
+    /**
+     * Opens {@code file}; nothing is decoded yet.
+     *
+     * @throws IOException if no ImageIO reader understands the file
+     */
+    public static FrameReader open(Path file) throws IOException {
+        ImageInputStream in = ImageIO.createImageInputStream(file.toFile());
+        if (in == null) throw new IOException("Cannot open " + file);
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+        if (!readers.hasNext()) {
+            in.close();
+            throw new IOException("Unsupported image format: " + file);
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(in, false, false);   // counting the frames seeks back
+        try {
+            return new FrameReader(in, reader);
+        } catch (IOException | RuntimeException e) {
+            reader.dispose();
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of frames in {@code file}; 1 for ordinary images
+     * @throws IOException if the file cannot be read
+     */
+    public static int count(Path file) throws IOException {
+        try (FrameReader frames = open(file)) {
+            return frames.count();
+        }
+    }
+
+    public int count() { return count; }
+
+    /** @return the GIF loop count (0: forever), or -1 if the file has none */
+    public int loopCount() throws IOException {
+        if (gif && loopCount < 0 && count > 0) {
+            loopCount = readLoopCount(reader.getImageMetadata(0));
+        }
+        return loopCount;
+    }
+
+    public boolean hasNext() { return next < count; }
+
+    /**
+     * Decodes the next frame.
+     *
+     * @throws IllegalStateException if every frame has been read
+     */
+    public Frame next() throws IOException {
+        if (!hasNext()) throw new IllegalStateException("No more frames");
+        int index = next++;
+        BufferedImage image = reader.read(index);
+        if (!gif) return new Frame(index, image, 0);
+
+        IIOMetadataNode meta = tree(reader.getImageMetadata(index), GIF_IMAGE);
+        IIOMetadataNode desc = child(meta, "ImageDescriptor");
+        IIOMetadataNode gce  = child(meta, "GraphicControlExtension");
+        int x = intAttr(desc, "imageLeftPosition", 0), y = intAttr(desc, "imageTopPosition", 0);
+        int delayMs = 10 * intAttr(gce, "delayTime", 0);
+        String disposal = gce == null ? "none" : gce.getAttribute("disposalMethod");
+
+        if (canvas == null) canvas = newCanvas(image, x, y);
+        BufferedImage previous = disposal.equals("restoreToPrevious")
+                               ? RasterAccess.copy(canvas) : null;
+
+        Graphics2D g = canvas.createGraphics();
+        g.drawImage(image, x, y, null);
+        BufferedImage frame = RasterAccess.copy(canvas);
+
+        // Prepare the canvas for the next frame
+        if (disposal.equals("restoreToBackgroundColor")) {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(x, y, image.getWidth(), image.getHeight());
+        } else if (previous != null) {
+            canvas = previous;
+        }
+        g.dispose();
+        return new Frame(index, frame, delayMs);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.dispose();
+        in.close();
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    /** A transparent canvas of the GIF's logical screen (or large enough for the first frame). */
+    private BufferedImage newCanvas(BufferedImage first, int x, int y) throws IOException {
+        int w = x + first.getWidth(), h = y + first.getHeight();
+        IIOMetadata stream = reader.getStreamMetadata();
+        if (stream != null) {
+            IIOMetadataNode screen = child(tree(stream, GIF_STREAM), "LogicalScreenDescriptor");
+            w = Math.max(w, intAttr(screen, "logicalScreenWidth", 0));
+            h = Math.max(h, intAttr(screen, "logicalScreenHeight", 0));
+        }
+        return new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static int readLoopCount(IIOMetadata metadata) {
+        IIOMetadataNode apps = child(tree(metadata, GIF_IMAGE), "ApplicationExtensions");
+        if (apps == null) return -1;
+        for (Node n = apps.getFirstChild(); n != null; n = n.getNextSibling()) {
+            IIOMetadataNode app = (IIOMetadataNode) n;
+            if (app.getAttribute("applicationID").equals("NETSCAPE")
+                    && app.getUserObject() instanceof byte[] data && data.length >= 3) {
+                return (data[1] & 0xFF) | (data[2] & 0xFF) << 8;
+            }
+        }
+        return -1;
+    }
+
+    private static IIOMetadataNode tree(IIOMetadata metadata, String format) {
+        try {
+            return (IIOMetadataNode) metadata.getAsTree(format);
+        } catch (IllegalArgumentException e) {
+            return new IIOMetadataNode(format);   // not a GIF tree: no attributes
+        }
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode parent, String name) {
+        for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (n.getNodeName().equals(name)) return (IIOMetadataNode) n;
+        }
+        return null;
+    }
+
+    private static int intAttr(IIOMetadataNode node, String name, int fallback) {
+        if (node == null || !node.hasAttribute(name)) return fallback;
+        try {
+            return Integer.parseInt(node.getAttribute(name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad GIF " + name + ": " + node.getAttribute(name));
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package codec;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOInvalidTreeException;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * FrameWriter.java
+ * ----------------
+ * Writes frames one at a time into a multi-frame file (animated GIF,
+ * multi-page TIFF) through ImageIO's write-sequence API, so frames can be
+ * encoded as soon as they are ready and then dropped.
+ *
+ * GIF frames keep their delay and the animation its loop count; each
+ * frame is written whole (disposal "none"), matching what
+ * {@link FrameReader} returns.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class FrameWriter implements AutoCloseable {
+
+    private final ImageOutputStream out;
+    private final ImageWriter writer;
+    private final ImageWriteParam param;
+    private final boolean gif;
+    private final int loopCount;
+    private int written;
+
+    /**
+     * @param format    output format, e.g. "gif" or "tif"
+     * @param loopCount GIF loop count (0: forever), or -1 for none
+     * @throws IllegalArgumentException if ImageIO cannot write {@code format}
+     *                                  as a sequence (see {@link #supports})
+     */
+    public FrameWriter(Path file, String format, int loopCount) throws IOException {
+        ImageWriter w = sequenceWriter(format);
+        if (w == null) {
+            throw new IllegalArgumentException("Cannot write multi-frame " + format + " files");
+        }
+        Files.deleteIfExists(file);   // the stream would otherwise keep a longer old tail
+        this.out = ImageIO.createImageOutputStream(file.toFile());
+        if (out == null) throw new IOException("Cannot create " + file);
+        this.writer = w;
+        this.param = w.getDefaultWriteParam();
+        this.gif = format.equalsIgnoreCase("gif");
+        this.loopCount = loopCount;
+        writer.setOutput(out);
+        writer.prepareWriteSequence(null);
+    }
+
+    /** @return true if ImageIO can write {@code format} files with several frames */
+    public static boolean supports(String format) {
+        ImageWriter w = sequenceWriter(format);
+        if (w == null) return false;
+        w.dispose();
+        return true;
+    }
+
+    /**
+     * Appends a frame.
+     *
+     * @param delayMs how long a GIF shows the frame (rounded to 10 ms)
+     */
+    public void write(BufferedImage frame, int delayMs) throws IOException {
+        IIOMetadata metadata = gif ? gifMetadata(frame, delayMs) : null;
+        writer.writeToSequence(new IIOImage(frame, null, metadata), param);
+        written++;
+    }
+
+    /** @return frames written so far */
+    public int written() { return written; }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+            out.close();
+        }
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    private static ImageWriter sequenceWriter(String format) {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        while (writers.hasNext()) {
+            ImageWriter w = writers.next();
+            if (w.canWriteSequence()) return w;
+            w.dispose();
+        }
+        return null;
+    }
+
+    private IIOMetadata gifMetadata(BufferedImage frame, int delayMs) throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(
+            ImageTypeSpecifier.createFromRenderedImage(frame), param);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode gce = node(root, "GraphicControlExtension");
+        gce.setAttribute("disposalMethod", "none");
+        gce.setAttribute("userInputFlag", "FALSE");
+        gce.setAttribute("transparentColorFlag", "FALSE");
+        gce.setAttribute("transparentColorIndex", "0");
+        gce.setAttribute("delayTime", String.valueOf(Math.round(delayMs / 10f)));
+
+        if (written == 0 && loopCount >= 0) {
+            IIOMetadataNode app = new IIOMetadataNode("ApplicationExtension");
+            app.setAttribute("applicationID", "NETSCAPE");
+            app.setAttribute("authenticationCode", "2.0");
+            app.setUserObject(new byte[] { 1, (byte) loopCount, (byte) (loopCount >> 8) });
+            node(root, "ApplicationExtensions").appendChild(app);
+        }
+        try {
+            metadata.setFromTree(format, root);
+        } catch (IIOInvalidTreeException e) {
+            throw new IOException("Cannot build GIF frame metadata", e);
+        }
+        return metadata;
+    }
+
+    /** @return the child called {@code name}, created if missing */
+    private static IIOMetadataNode node(IIOMetadataNode parent, String name) {
+        for (int i = 0; i < parent.getLength(); i++) {
+            if (parent.item(i).getNodeName().equals(name)) return (IIOMetadataNode) parent.item(i);
+        }
+        IIOMetadataNode child = new IIOMetadataNode(name);
+        parent.appendChild(child);
+        return child;
+    }
+}
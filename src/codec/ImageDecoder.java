@@ -0,0 +1,143 @@
+package codec;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * ImageDecoder.java
+ * -----------------
+ * Reads images through an {@link ImageReader} instead of
+ * {@code ImageIO.read}, so callers can:
+ *
+ *   - {@link #probe} the size and type from the header without decoding
+ *     any pixels;
+ *   - decode only a source region (e.g. the rectangle a crop-first
+ *     pipeline keeps), which skips the colour conversion and memory of
+ *     everything outside it; the JPEG reader also stops after the
+ *     region's last row;
+ *   - get colour JPEGs as {@code TYPE_INT_RGB} rather than the reader's
+ *     default {@code TYPE_3BYTE_BGR}.  Decoding is a little slower that
+ *     way, but every later step (operations, mip levels, PNG encoding)
+ *     runs on the int fast paths instead of unpacking bytes.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class ImageDecoder {
+
+    /** Size and type an image will have once decoded. */
+    public record Header(int width, int height, int imageType) { }
+
+    private ImageDecoder() { }
+
+    /**
+     * Reads only the header of {@code file}.
+     *
+     * @return its size and decoded BufferedImage type, or null if no
+     *         ImageIO reader understands the file
+     */
+    public static Header probe(Path file) throws IOException {
+        try (ImageInputStream in = open(file)) {
+            ImageReader reader = readerFor(in);
+            if (reader == null) return null;
+            try {
+                int type = decodesToIntRgb(reader) ? BufferedImage.TYPE_INT_RGB
+                         : reader.getImageTypes(0).next().getBufferedImageType();
+                return new Header(reader.getWidth(0), reader.getHeight(0), type);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Decodes the whole image.
+     *
+     * @return the image, or null if no ImageIO reader understands the file
+     */
+    public static BufferedImage read(Path file) throws IOException {
+        return read(file, null);
+    }
+
+    /**
+     * Decodes the part of the image inside {@code region} (null: all of
+     * it); the result's (0, 0) is the region's top-left corner.
+     *
+     * @return the image, or null if no ImageIO reader understands the file
+     * @throws IllegalArgumentException if the region misses the image
+     */
+    public static BufferedImage read(Path file, Rectangle region) throws IOException {
+        try (ImageInputStream in = open(file)) {
+            return read(in, region);
+        }
+    }
+
+    /**
+     * Decodes an image held in memory, e.g. an upload.
+     *
+     * @return the image, or null if no ImageIO reader understands the data
+     */
+    public static BufferedImage read(byte[] data) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            return read(in, null);
+        }
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    private static BufferedImage read(ImageInputStream in, Rectangle region) throws IOException {
+        ImageReader reader = readerFor(in);
+        if (reader == null) return null;
+        try {
+            Rectangle r = new Rectangle(reader.getWidth(0), reader.getHeight(0));
+            ImageReadParam param = reader.getDefaultReadParam();
+            if (region != null) {
+                r = r.intersection(region);
+                if (r.isEmpty()) {
+                    throw new IllegalArgumentException("Region " + region.width + "×"
+                        + region.height + " at (" + region.x + "," + region.y
+                        + ") is outside the image");
+                }
+                param.setSourceRegion(r);
+            }
+            if (decodesToIntRgb(reader)) {
+                param.setDestination(new BufferedImage(r.width, r.height,
+                                                       BufferedImage.TYPE_INT_RGB));
+            }
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static ImageInputStream open(Path file) throws IOException {
+        ImageInputStream in = ImageIO.createImageInputStream(file.toFile());
+        if (in == null) throw new IOException("Cannot open " + file);
+        return in;
+    }
+
+    private static ImageReader readerFor(ImageInputStream in) {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+        if (!readers.hasNext()) return null;
+        ImageReader reader = readers.next();
+        reader.setInput(in, true, true);
+        return reader;
+    }
+
+    /** @return true for colour JPEGs, whose default destination is 3BYTE_BGR */
+    private static boolean decodesToIntRgb(ImageReader reader) throws IOException {
+        if (!reader.getFormatName().equalsIgnoreCase("jpeg")) return false;
+        Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0);
+        return types.hasNext()
+            && types.next().getBufferedImageType() == BufferedImage.TYPE_3BYTE_BGR;
+    }
+}
@@ -0,0 +1,35 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Allocation.java
+ * ---------------
+ * Heap bytes allocated by the current thread, where the JVM supports it
+ * (HotSpot does, through {@code com.sun.management.ThreadMXBean}).
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class Allocation {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private Allocation() { }
+
+    /** @return bytes allocated by the calling thread so far, or -1 if unsupported */
+    public static long currentThread() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean hotspot
+                && hotspot.isThreadAllocatedMemorySupported()) {
+            hotspot.setThreadAllocatedMemoryEnabled(true);
+            return hotspot;
+        }
+        return null;
+    }
+}
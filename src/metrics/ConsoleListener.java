@@ -0,0 +1,31 @@
+package metrics;
+
+import operations.ImageOperation;
+
+import java.util.List;
+
+/**
+ * ConsoleListener.java
+ * --------------------
+ * Prints the runner's progress to stdout: the optimizer's reduction and
+ * each step as it starts.  This is what the interactive editor shows;
+ * batch runs leave it out.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class ConsoleListener implements PipelineListener {
+
+    @Override
+    public void optimized(List<ImageOperation> ops, List<ImageOperation> plan) {
+        if (plan.size() < ops.size()) {
+            System.out.printf("  Optimized pipeline: %d → %d operations%n",
+                ops.size(), plan.size());
+        }
+    }
+
+    @Override
+    public void operationStarted(ImageOperation op) {
+        System.out.println("  Applying " + op + " …");
+    }
+}
@@ -0,0 +1,80 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import operations.ImageOperation;
+
+/**
+ * JfrListener.java
+ * ----------------
+ * Emits Java Flight Recorder events for every operation and every image
+ * decode, encode and queue wait, so a recording
+ * ({@code java -XX:StartFlightRecording=filename=run.jfr …}) shows the
+ * pipeline next to GC, allocation and thread activity.  When no recording
+ * is running, each callback costs one enabled-check.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class JfrListener implements PipelineListener {
+
+    @Name("imageeditor.Operation")
+    @Label("Image Operation")
+    @Category("Image Editor")
+    static class OperationEvent extends Event {
+        @Label("Operation") String operation;
+        @Label("Elapsed") @Timespan(Timespan.NANOSECONDS) long elapsed;
+        @Label("Pixels") long pixels;
+        @Label("Allocated") @DataAmount long allocated;
+    }
+
+    @Name("imageeditor.ImageIO")
+    @Label("Image Decode/Encode/Queue")
+    @Category("Image Editor")
+    static class IoEvent extends Event {
+        @Label("Stage") String stage;
+        @Label("File") String file;
+        @Label("Elapsed") @Timespan(Timespan.NANOSECONDS) long elapsed;
+        @Label("Pixels") long pixels;
+    }
+
+    @Override
+    public void operationFinished(ImageOperation op, long nanos, long pixels, long allocatedBytes) {
+        OperationEvent e = new OperationEvent();
+        if (!e.isEnabled()) return;
+        e.operation = op.toString();
+        e.elapsed   = nanos;
+        e.pixels    = pixels;
+        e.allocated = allocatedBytes;
+        e.commit();
+    }
+
+    @Override
+    public void queued(String file, long nanos) {
+        io("queue", file, nanos, 0);
+    }
+
+    @Override
+    public void decoded(String file, long nanos, long pixels) {
+        io("decode", file, nanos, pixels);
+    }
+
+    @Override
+    public void encoded(String file, long nanos, long pixels) {
+        io("encode", file, nanos, pixels);
+    }
+
+    private static void io(String stage, String file, long nanos, long pixels) {
+        IoEvent e = new IoEvent();
+        if (!e.isEnabled()) return;
+        e.stage   = stage;
+        e.file    = file;
+        e.elapsed = nanos;
+        e.pixels  = pixels;
+        e.commit();
+    }
+}
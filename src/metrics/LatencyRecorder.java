@@ -0,0 +1,56 @@
+package metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyRecorder.java
+ * --------------------
+ * Keeps the most recent latencies (a fixed-size ring) and reports
+ * percentiles over them, e.g. p50/p99 of a server's last 10 000 requests.
+ *
+ * Recording is one atomic increment and one array store, so request
+ * threads never wait on each other; {@link #percentile} copies and sorts
+ * the window, which is meant for occasional reporting.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class LatencyRecorder {
+
+    private final AtomicLongArray window;
+    private final AtomicLong count = new AtomicLong();
+
+    /** @param capacity how many of the latest samples percentiles cover */
+    public LatencyRecorder(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        window = new AtomicLongArray(capacity);
+    }
+
+    public void record(long nanos) {
+        long n = count.getAndIncrement();
+        window.set((int) (n % window.length()), nanos);
+    }
+
+    /** @return samples recorded since construction (not just in the window) */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * @param p percentile, 0–100
+     * @return the p-th percentile of the window in nanoseconds (nearest
+     *         rank), or 0 if nothing was recorded
+     */
+    public long percentile(double p) {
+        if (p < 0 || p > 100) throw new IllegalArgumentException("percentile must be 0–100");
+        int n = (int) Math.min(count.get(), window.length());
+        if (n == 0) return 0;
+        long[] sorted = new long[n];
+        for (int i = 0; i < n; i++) sorted[i] = window.get(i);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(p / 100 * n);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
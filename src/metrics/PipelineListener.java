@@ -0,0 +1,83 @@
+package metrics;
+
+import operations.ImageOperation;
+
+import java.util.List;
+
+/**
+ * PipelineListener.java
+ * ---------------------
+ * Callbacks from the pipeline runner, for logging and metrics.
+ *
+ * Every method has an empty default, so a listener only overrides what it
+ * needs.  Callbacks may come from several threads at once (batch workers)
+ * and run on the hot path, so implementations must be thread-safe and
+ * cheap.  Times are in nanoseconds.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public interface PipelineListener {
+
+    /** A listener that ignores everything. */
+    PipelineListener NONE = new PipelineListener() { };
+
+    /** The optimizer turned {@code ops} into {@code plan}. */
+    default void optimized(List<ImageOperation> ops, List<ImageOperation> plan) { }
+
+    /** {@code op} is about to run. */
+    default void operationStarted(ImageOperation op) { }
+
+    /**
+     * {@code op} finished.
+     *
+     * @param pixels         size of the image it ran on
+     * @param allocatedBytes heap allocated by the calling thread meanwhile
+     *                       (-1 if the JVM cannot tell); work done on pool
+     *                       threads is not included
+     */
+    default void operationFinished(ImageOperation op, long nanos, long pixels,
+                                   long allocatedBytes) { }
+
+    /** {@code file} waited {@code nanos} in a work queue before starting. */
+    default void queued(String file, long nanos) { }
+
+    /** {@code file} was decoded into {@code pixels} pixels. */
+    default void decoded(String file, long nanos, long pixels) { }
+
+    /** {@code pixels} pixels were encoded into {@code file}. */
+    default void encoded(String file, long nanos, long pixels) { }
+
+    /** @return a listener forwarding every callback to all of {@code listeners} */
+    static PipelineListener of(List<? extends PipelineListener> listeners) {
+        List<PipelineListener> all = List.copyOf(listeners);
+        if (all.isEmpty()) return NONE;
+        if (all.size() == 1) return all.get(0);
+        return new PipelineListener() {
+            @Override public void optimized(List<ImageOperation> ops, List<ImageOperation> plan) {
+                for (PipelineListener l : all) l.optimized(ops, plan);
+            }
+            @Override public void operationStarted(ImageOperation op) {
+                for (PipelineListener l : all) l.operationStarted(op);
+            }
+            @Override public void operationFinished(ImageOperation op, long nanos, long pixels,
+                                                    long allocatedBytes) {
+                for (PipelineListener l : all) l.operationFinished(op, nanos, pixels, allocatedBytes);
+            }
+            @Override public void queued(String file, long nanos) {
+                for (PipelineListener l : all) l.queued(file, nanos);
+            }
+            @Override public void decoded(String file, long nanos, long pixels) {
+                for (PipelineListener l : all) l.decoded(file, nanos, pixels);
+            }
+            @Override public void encoded(String file, long nanos, long pixels) {
+                for (PipelineListener l : all) l.encoded(file, nanos, pixels);
+            }
+        };
+    }
+
+    /** @return a listener forwarding to each argument */
+    static PipelineListener of(PipelineListener... listeners) {
+        return of(List.of(listeners));
+    }
+}
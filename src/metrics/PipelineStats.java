@@ -0,0 +1,119 @@
+package metrics;
+
+import operations.ImageOperation;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PipelineStats.java
+ * ------------------
+ * Listener that keeps running totals for the whole process and publishes
+ * them over JMX (see {@link PipelineStatsMXBean}).  Counters are
+ * {@link LongAdder}s, so many batch workers can update them without
+ * contending.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class PipelineStats implements PipelineListener, PipelineStatsMXBean {
+
+    public static final String OBJECT_NAME = "imageeditor:type=PipelineStats";
+
+    private static final PipelineStats GLOBAL = new PipelineStats();
+    private static volatile boolean registered;
+
+    private final LongAdder operations = new LongAdder(), operationNanos = new LongAdder(),
+                            pixels = new LongAdder(), allocated = new LongAdder(),
+                            skipped = new LongAdder(),
+                            decodes = new LongAdder(), decodeNanos = new LongAdder(),
+                            encodes = new LongAdder(), encodeNanos = new LongAdder(),
+                            queued = new LongAdder(), queueNanos = new LongAdder();
+    private volatile boolean allocationKnown = true;
+
+    private PipelineStats() { }
+
+    /**
+     * Returns the process-wide instance, registering it with the platform
+     * MBean server on first use.
+     */
+    public static PipelineStats global() {
+        if (!registered) {
+            synchronized (PipelineStats.class) {
+                if (!registered) {
+                    try {
+                        ManagementFactory.getPlatformMBeanServer()
+                            .registerMBean(GLOBAL, new ObjectName(OBJECT_NAME));
+                    } catch (InstanceAlreadyExistsException e) {
+                        // registered by another class loader; keep counting locally
+                    } catch (JMException e) {
+                        throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+                    }
+                    registered = true;
+                }
+            }
+        }
+        return GLOBAL;
+    }
+
+    // ── PipelineListener ──────────────────────────────────────────────────
+
+    @Override
+    public void optimized(List<ImageOperation> ops, List<ImageOperation> plan) {
+        skipped.add(Math.max(0, ops.size() - plan.size()));
+    }
+
+    @Override
+    public void operationFinished(ImageOperation op, long nanos, long pixels, long allocatedBytes) {
+        operations.increment();
+        operationNanos.add(nanos);
+        this.pixels.add(pixels);
+        if (allocatedBytes < 0) allocationKnown = false;
+        else allocated.add(allocatedBytes);
+    }
+
+    @Override
+    public void queued(String file, long nanos) {
+        queued.increment();
+        queueNanos.add(nanos);
+    }
+
+    @Override
+    public void decoded(String file, long nanos, long pixels) {
+        decodes.increment();
+        decodeNanos.add(nanos);
+    }
+
+    @Override
+    public void encoded(String file, long nanos, long pixels) {
+        encodes.increment();
+        encodeNanos.add(nanos);
+    }
+
+    // ── PipelineStatsMXBean ───────────────────────────────────────────────
+
+    @Override public long getOperationCount()      { return operations.sum(); }
+    @Override public double getOperationTotalMs()  { return operationNanos.sum() / 1e6; }
+    @Override public long getPixelsProcessed()     { return pixels.sum(); }
+    @Override public long getAllocatedBytes()      { return allocationKnown ? allocated.sum() : -1; }
+    @Override public long getOperationsSkipped()   { return skipped.sum(); }
+    @Override public long getDecodeCount()         { return decodes.sum(); }
+    @Override public double getDecodeTotalMs()     { return decodeNanos.sum() / 1e6; }
+    @Override public long getEncodeCount()         { return encodes.sum(); }
+    @Override public double getEncodeTotalMs()     { return encodeNanos.sum() / 1e6; }
+    @Override public long getQueuedCount()         { return queued.sum(); }
+    @Override public double getQueueWaitTotalMs()  { return queueNanos.sum() / 1e6; }
+
+    @Override
+    public void reset() {
+        for (LongAdder a : List.of(operations, operationNanos, pixels, allocated, skipped,
+                                   decodes, decodeNanos, encodes, encodeNanos, queued, queueNanos)) {
+            a.reset();
+        }
+        allocationKnown = true;
+    }
+}
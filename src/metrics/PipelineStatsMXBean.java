@@ -0,0 +1,39 @@
+package metrics;
+
+/**
+ * PipelineStatsMXBean.java
+ * ------------------------
+ * Process-wide pipeline counters as seen from JMX (jconsole, VisualVM,
+ * any JMX exporter), under {@code imageeditor:type=PipelineStats}.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public interface PipelineStatsMXBean {
+
+    long getOperationCount();
+
+    double getOperationTotalMs();
+
+    long getPixelsProcessed();
+
+    /** @return heap allocated by operations, or -1 if the JVM cannot tell */
+    long getAllocatedBytes();
+
+    long getOperationsSkipped();
+
+    long getDecodeCount();
+
+    double getDecodeTotalMs();
+
+    long getEncodeCount();
+
+    double getEncodeTotalMs();
+
+    long getQueuedCount();
+
+    double getQueueWaitTotalMs();
+
+    /** Sets every counter back to zero. */
+    void reset();
+}
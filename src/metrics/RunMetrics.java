@@ -0,0 +1,134 @@
+package metrics;
+
+import operations.ImageOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RunMetrics.java
+ * ---------------
+ * Collects the numbers of one run (a save, a batch) and renders them as a
+ * machine-readable JSON summary:
+ *
+ *   {
+ *     "wallMs": 812.4,
+ *     "files": 12,
+ *     "queueWait": { "count": 12, "totalMs": 30.2, "meanMs": 2.5, "maxMs": 9.1 },
+ *     "decode":    { … },
+ *     "encode":    { … },
+ *     "operations": {
+ *       "InvertOperation": { "count": 24, "totalMs": …, "meanMs": …, "maxMs": …,
+ *                            "pixels": …, "allocatedBytes": … }
+ *     },
+ *     "operationsSkipped": 3
+ *   }
+ *
+ * Operations are grouped by class; {@code operationsSkipped} counts steps
+ * the optimizer removed.  Thread-safe.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public class RunMetrics implements PipelineListener {
+
+    /** Count, total and maximum of one kind of timing. */
+    private static final class Timing {
+        long count, totalNanos, maxNanos, pixels, allocatedBytes;
+
+        void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final Timing queueWait = new Timing(), decode = new Timing(), encode = new Timing();
+    private final Map<String, Timing> operations = new LinkedHashMap<>();
+    private long skipped;
+    private boolean allocationKnown = true;
+
+    @Override
+    public synchronized void optimized(List<ImageOperation> ops, List<ImageOperation> plan) {
+        skipped += Math.max(0, ops.size() - plan.size());
+    }
+
+    @Override
+    public synchronized void operationFinished(ImageOperation op, long nanos, long pixels,
+                                               long allocatedBytes) {
+        Timing t = operations.computeIfAbsent(op.getClass().getSimpleName(), k -> new Timing());
+        t.add(nanos);
+        t.pixels += pixels;
+        if (allocatedBytes < 0) allocationKnown = false;
+        else t.allocatedBytes += allocatedBytes;
+    }
+
+    @Override
+    public synchronized void queued(String file, long nanos) {
+        queueWait.add(nanos);
+    }
+
+    @Override
+    public synchronized void decoded(String file, long nanos, long pixels) {
+        decode.add(nanos);
+        decode.pixels += pixels;
+    }
+
+    @Override
+    public synchronized void encoded(String file, long nanos, long pixels) {
+        encode.add(nanos);
+        encode.pixels += pixels;
+    }
+
+    // ── JSON ──────────────────────────────────────────────────────────────
+
+    /** @return the summary so far; wall time runs from construction to now */
+    public synchronized String toJson() {
+        StringBuilder sb = new StringBuilder("{\n");
+        sb.append("  \"wallMs\": ").append(ms(System.nanoTime() - startNanos)).append(",\n");
+        sb.append("  \"files\": ").append(decode.count).append(",\n");
+        sb.append("  \"queueWait\": ");
+        timing(sb, queueWait, false, false);
+        sb.append(",\n  \"decode\": ");
+        timing(sb, decode, true, false);
+        sb.append(",\n  \"encode\": ");
+        timing(sb, encode, true, false);
+        sb.append(",\n  \"operations\": {");
+        String sep = "\n";
+        for (Map.Entry<String, Timing> e : operations.entrySet()) {
+            sb.append(sep).append("    ").append(quote(e.getKey())).append(": ");
+            timing(sb, e.getValue(), true, allocationKnown);
+            sep = ",\n";
+        }
+        sb.append(operations.isEmpty() ? "}" : "\n  }");
+        sb.append(",\n  \"operationsSkipped\": ").append(skipped).append("\n}\n");
+        return sb.toString();
+    }
+
+    private static void timing(StringBuilder sb, Timing t, boolean pixels, boolean allocation) {
+        sb.append("{ \"count\": ").append(t.count)
+          .append(", \"totalMs\": ").append(ms(t.totalNanos))
+          .append(", \"meanMs\": ").append(ms(t.count == 0 ? 0 : t.totalNanos / t.count))
+          .append(", \"maxMs\": ").append(ms(t.maxNanos));
+        if (pixels) sb.append(", \"pixels\": ").append(t.pixels);
+        if (allocation) sb.append(", \"allocatedBytes\": ").append(t.allocatedBytes);
+        sb.append(" }");
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            if (c == '"' || c == '\\') sb.append('\\').append(c);
+            else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
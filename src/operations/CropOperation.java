@@ -1,6 +1,11 @@
 package operations;
 
+import tiled.TiledImage;
+import tiled.TiledOperation;
+
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 
 /**
  * CropOperation.java
@@ -13,7 +18,8 @@ import java.awt.image.BufferedImage;
  * Multimedia & Computer Graphics – First Partial
  * Universidad Panamericana | 2026
  */
-public class CropOperation extends ImageOperation {
+public class CropOperation extends ImageOperation
+                           implements ScalableOperation, TiledOperation {
 
     private final int x1, y1, x2, y2;
 
@@ -57,11 +63,87 @@ public class CropOperation extends ImageOperation {
         int width  = cx2 - cx1;
         int height = cy2 - cy1;
 
-        // getSubimage shares the raster; copy to an independent image
-        BufferedImage cropped = new BufferedImage(width, height, image.getType());
-        cropped.getGraphics().drawImage(
-            image.getSubimage(cx1, cy1, width, height), 0, 0, null);
-        return cropped;
+        // Row-by-row copy of the backing array into an independent image
+        return RasterAccess.copyRegion(image, cx1, cy1, width, height);
+    }
+
+    /**
+     * Copies the cropped region of an out-of-core image into a new one, a
+     * row at a time.
+     *
+     * @param image source image (not modified)
+     * @return new image containing only the cropped region
+     * @throws IllegalArgumentException if the crop box falls outside the image
+     */
+    @Override
+    public TiledImage applyTiled(TiledImage image) throws IOException {
+        int cx1 = Math.max(0, x1);
+        int cy1 = Math.max(0, y1);
+        int cx2 = Math.min(image.getWidth(), x2);
+        int cy2 = Math.min(image.getHeight(), y2);
+
+        if (cx2 <= cx1 || cy2 <= cy1) {
+            throw new IllegalArgumentException(
+                "Crop region is outside the image boundaries.");
+        }
+
+        int width  = cx2 - cx1;
+        int height = cy2 - cy1;
+        TiledImage result = image.createCompatible(width, height);
+        try {
+            int[] row = new int[width];
+            for (int y = 0; y < height; y++) {
+                image.readRegion(cx1, cy1 + y, width, 1, row, 0, width);
+                result.writeRegion(0, y, width, 1, row, 0, width);
+            }
+        } catch (IOException | RuntimeException e) {
+            result.close();
+            throw e;
+        }
+        return result;
+    }
+
+    /** @return the part of {@code input} inside the crop, in result coordinates */
+    @Override
+    public Rectangle outputRegion(Rectangle input, int width, int height) {
+        Rectangle crop = clamped(width, height);
+        Rectangle r = input.intersection(crop);
+        if (r.isEmpty()) return new Rectangle();
+        r.translate(-crop.x, -crop.y);
+        return r;
+    }
+
+    @Override
+    public Rectangle inputRegion(Rectangle output, int width, int height) {
+        Rectangle crop = clamped(width, height);
+        Rectangle r = new Rectangle(output);
+        r.translate(crop.x, crop.y);
+        return r;
+    }
+
+    /** @return the crop of {@code window ∩ crop}, relative to the window */
+    @Override
+    public CropOperation restrictTo(Rectangle window, int width, int height) {
+        Rectangle r = window.intersection(clamped(width, height));
+        r.translate(-window.x, -window.y);
+        return new CropOperation(r.x, r.y, r.x + r.width, r.y + r.height);
+    }
+
+    private Rectangle clamped(int width, int height) {
+        return getRegion().intersection(new Rectangle(width, height));
+    }
+
+    /** @return the crop rectangle as given (normalised, not clamped) */
+    public Rectangle getRegion() {
+        return new Rectangle(x1, y1, x2 - x1, y2 - y1);
+    }
+
+    @Override
+    public CropOperation downscaled(int level) {
+        if (level == 0) return this;
+        return new CropOperation(
+            ScalableOperation.scaleStart(x1, level), ScalableOperation.scaleStart(y1, level),
+            ScalableOperation.scaleEnd(x2, level),   ScalableOperation.scaleEnd(y2, level));
     }
 
     @Override
@@ -1,5 +1,6 @@
 package operations;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 
 
@@ -9,12 +10,109 @@ public abstract class ImageOperation {
      * Apply this operation to the given image.
      * Implementations must NOT mutate the original image;
      * they must return a new or copied BufferedImage.
+     * Operations that can safely work on the caller's buffer
+     * additionally implement {@link InPlaceOperation}.
      *
      * @param image source image
      * @return resulting image after the operation
      */
     public abstract BufferedImage apply(BufferedImage image);
 
+    // ── Region of interest ────────────────────────────────────────────────
+    //
+    // Lets a pipeline planner evaluate only the pixels that reach the final
+    // result (see pipeline.RegionPlanner).  Operations that do not override
+    // these methods are always run on the whole image.
+
+    /**
+     * Forward mapping: the rectangle of the result covered by the pixels of
+     * {@code input} (a rectangle of a {@code width}×{@code height} input).
+     * With {@code input} = the whole image this gives the result's size.
+     *
+     * @return the result rectangle, or null if unknown
+     */
+    public Rectangle outputRegion(Rectangle input, int width, int height) {
+        return null;
+    }
+
+    /**
+     * Backward mapping: the rectangle of a {@code width}×{@code height}
+     * input that determines every pixel of {@code output} in the result.
+     *
+     * @return the input rectangle, or null if unknown (the whole image)
+     */
+    public Rectangle inputRegion(Rectangle output, int width, int height) {
+        return null;
+    }
+
+    /**
+     * Returns the equivalent operation for the sub-image {@code window} of
+     * a {@code width}×{@code height} input: run on that sub-image, it
+     * produces the sub-image {@code outputRegion(window)} of the result,
+     * correct wherever {@code window} contains the pixels
+     * {@link #inputRegion} asks for.
+     *
+     * @return the restricted operation, or null if not supported
+     */
+    public ImageOperation restrictTo(Rectangle window, int width, int height) {
+        return null;
+    }
+
+    /**
+     * The rectangle of a {@code width}×{@code height} input whose pixels
+     * this operation may change, for operations that keep the image size
+     * and leave every pixel outside it untouched (see
+     * {@code pipeline.EditHistory}, which saves only these pixels for undo).
+     *
+     * @return the rectangle (possibly empty), or null if unknown or the
+     *         image changes size
+     */
+    public Rectangle changedRegion(int width, int height) {
+        return null;
+    }
+
+    // ── Algebra ───────────────────────────────────────────────────────────
+    //
+    // Lets the optimizer cancel and reorder steps, and EditHistory undo a
+    // step by running another one instead of saving pixels.  The defaults
+    // claim nothing beyond what changedRegion implies.
+
+    /**
+     * Returns an operation that, run right after this one on a
+     * {@code width}×{@code height} image of type {@code imageType}, gives
+     * back the exact pixels this one started from.
+     *
+     * @return the inverse, or null if there is none (pixels are lost) or it
+     *         is unknown
+     */
+    public ImageOperation inverse(int width, int height, int imageType) {
+        return null;
+    }
+
+    /**
+     * Whether running this operation and then {@code other} on a
+     * {@code width}×{@code height} image gives the same result as the
+     * opposite order.  By default that is claimed only when both keep the
+     * image size, their {@link #changedRegion}s are disjoint and each reads
+     * nothing outside its own ({@link #inputRegion}); an operation that
+     * changes nothing commutes with any size-keeping one.  Overrides must
+     * stay symmetric.
+     */
+    public boolean commutesWith(ImageOperation other, int width, int height) {
+        Rectangle a = changedRegion(width, height);
+        Rectangle b = other.changedRegion(width, height);
+        if (a == null || b == null) return false;
+        if (a.isEmpty() || b.isEmpty()) return true;
+        return !a.intersects(b)
+            && readsOnly(this, a, width, height) && readsOnly(other, b, width, height);
+    }
+
+    /** @return true if the pixels {@code op} writes in {@code region} depend only on pixels in it */
+    private static boolean readsOnly(ImageOperation op, Rectangle region, int width, int height) {
+        Rectangle in = op.inputRegion(region, width, height);
+        return in != null && region.contains(in);
+    }
+
     /**
      * Human-readable description of the operation (for logging/pipeline preview).
      */
@@ -0,0 +1,29 @@
+package operations;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * InPlaceOperation.java
+ * ---------------------
+ * Opt-in capability for operations that can modify an image directly
+ * instead of returning a copy.
+ *
+ * {@link ImageOperation#apply} must never mutate its argument, so running a
+ * pipeline that way allocates one full frame per step.  An operation that
+ * keeps the image size (e.g. a region invert or rotate) can implement this
+ * interface; the pipeline runner then gives it the runner's own working
+ * buffer and skips the copy.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public interface InPlaceOperation {
+
+    /**
+     * Applies the operation directly to {@code image}.
+     * The image keeps its size and type.
+     *
+     * @param image working image owned by the caller; modified in place
+     */
+    void applyInPlace(BufferedImage image);
+}
@@ -0,0 +1,93 @@
+package operations;
+
+/**
+ * InvertKernel.java
+ * -----------------
+ * The XOR loops behind {@link InvertOperation}, over one row span of a
+ * raster's backing array at a time.
+ *
+ * {@link #SELECTED} is chosen once, when the class is first used:
+ *
+ *   - {@code VectorInvertKernel} (source root {@code vector/}), built on
+ *     the incubating {@code jdk.incubator.vector} API, if it was compiled
+ *     and the JVM runs with {@code --add-modules jdk.incubator.vector};
+ *   - otherwise {@link #SCALAR}, a plain loop.
+ *
+ * {@code -Dimageeditor.vector=false} forces the scalar kernel, e.g. to
+ * compare the two.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public interface InvertKernel {
+
+    /** {@code data[i] ^= mask} for i in [from, to). */
+    void xor(int[] data, int from, int to, int mask);
+
+    /**
+     * XORs [from, to) with {@code mask} repeated every four bytes, most
+     * significant byte first: byte {@code from + k} is XORed with byte
+     * {@code k % 4} of the mask.  {@code -1} flips every byte;
+     * {@code 0x00FFFFFF} flips all but the first of each group of four
+     * (the alpha byte of a 4BYTE_ABGR pixel).
+     */
+    void xor(byte[] data, int from, int to, int mask);
+
+    /** @return a short name for reports, e.g. "vector 512-bit" */
+    String name();
+
+    /** Plain loops; the JIT may still auto-vectorize the uniform cases. */
+    InvertKernel SCALAR = new InvertKernel() {
+        @Override
+        public void xor(int[] data, int from, int to, int mask) {
+            for (int i = from; i < to; i++) data[i] ^= mask;
+        }
+
+        @Override
+        public void xor(byte[] data, int from, int to, int mask) {
+            if (mask == -1) {
+                for (int i = from; i < to; i++) data[i] ^= (byte) 0xFF;
+                return;
+            }
+            if (mask == 0x00FFFFFF && ((to - from) & 3) == 0) {
+                flipColourBytes(data, from, to);
+                return;
+            }
+            int i = from;
+            byte b0 = (byte) (mask >>> 24), b1 = (byte) (mask >>> 16);
+            byte b2 = (byte) (mask >>> 8),  b3 = (byte) mask;
+            for (; i + 4 <= to; i += 4) {
+                data[i]     ^= b0;
+                data[i + 1] ^= b1;
+                data[i + 2] ^= b2;
+                data[i + 3] ^= b3;
+            }
+            for (; i < to; i++) data[i] ^= (byte) (mask >>> (24 - 8 * ((i - from) & 3)));
+        }
+
+        @Override
+        public String name() { return "scalar"; }
+    };
+
+    /** 4BYTE_ABGR pixels in [from, to): alpha first, so flip bytes 1–3 of each. */
+    private static void flipColourBytes(byte[] data, int from, int to) {
+        for (int i = from; i < to; i += 4) {
+            data[i + 1] ^= (byte) 0xFF;
+            data[i + 2] ^= (byte) 0xFF;
+            data[i + 3] ^= (byte) 0xFF;
+        }
+    }
+
+    /** The fastest kernel available in this JVM. */
+    InvertKernel SELECTED = select();
+
+    private static InvertKernel select() {
+        if (!Boolean.parseBoolean(System.getProperty("imageeditor.vector", "true"))) return SCALAR;
+        try {
+            return (InvertKernel) Class.forName("operations.VectorInvertKernel")
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;   // not compiled, or jdk.incubator.vector not added
+        }
+    }
+}
@@ -1,6 +1,17 @@
 package operations;
 
+import tiled.TiledImage;
+import tiled.TiledOperation;
+
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
 
 /**
  * InvertOperation.java
@@ -15,7 +26,8 @@ import java.awt.image.BufferedImage;
  * Multimedia & Computer Graphics – First Partial
  * Universidad Panamericana | 2026
  */
-public class InvertOperation extends ImageOperation {
+public class InvertOperation extends ImageOperation
+                             implements InPlaceOperation, ScalableOperation, TiledOperation {
 
     private final int x1, y1, x2, y2;
 
@@ -40,11 +52,21 @@ public class InvertOperation extends ImageOperation {
      */
     @Override
     public BufferedImage apply(BufferedImage image) {
-        // Deep-copy the entire image so the original is never mutated
-        BufferedImage result = deepCopy(image);
+        // Copy the entire image so the original is never mutated
+        BufferedImage result = RasterAccess.copy(image);
+        applyInPlace(result);
+        return result;
+    }
 
-        int imgW = result.getWidth();
-        int imgH = result.getHeight();
+    /**
+     * Inverts the selected region directly in {@code image}.
+     *
+     * @param image image to modify
+     */
+    @Override
+    public void applyInPlace(BufferedImage image) {
+        int imgW = image.getWidth();
+        int imgH = image.getHeight();
 
         // Clamp region to image boundaries
         int rx1 = Math.max(0, x1);
@@ -52,31 +74,304 @@ public class InvertOperation extends ImageOperation {
         int rx2 = Math.min(imgW, x2);
         int ry2 = Math.min(imgH, y2);
 
-        for (int y = ry1; y < ry2; y++) {
-            for (int x = rx1; x < rx2; x++) {
-                int argb = result.getRGB(x, y);
+        if (rx2 <= rx1 || ry2 <= ry1) return; // nothing to invert
+
+        invertRegion(image, rx1, ry1, rx2, ry2);
+    }
 
-                int a = (argb >> 24) & 0xFF;          // keep alpha
-                int r = 255 - ((argb >> 16) & 0xFF);  // invert red
-                int g = 255 - ((argb >>  8) & 0xFF);  // invert green
-                int b = 255 - ( argb        & 0xFF);  // invert blue
+    /**
+     * Inverts the selected region of an out-of-core image in place, one
+     * mapped tile at a time.
+     *
+     * @param image image to modify
+     * @return {@code image}
+     */
+    @Override
+    public TiledImage applyTiled(TiledImage image) throws IOException {
+        int rx1 = Math.max(0, x1);
+        int ry1 = Math.max(0, y1);
+        int rx2 = Math.min(image.getWidth(), x2);
+        int ry2 = Math.min(image.getHeight(), y2);
+        if (rx2 <= rx1 || ry2 <= ry1) return image;
 
-                result.setRGB(x, y, (a << 24) | (r << 16) | (g << 8) | b);
+        int t = image.getTileSize();
+        for (int ty = ry1 / t; ty <= (ry2 - 1) / t; ty++) {
+            int y0 = Math.max(ry1, ty * t) - ty * t, y1 = Math.min(ry2, (ty + 1) * t) - ty * t;
+            for (int tx = rx1 / t; tx <= (rx2 - 1) / t; tx++) {
+                int x0 = Math.max(rx1, tx * t) - tx * t, x1 = Math.min(rx2, (tx + 1) * t) - tx * t;
+                IntBuffer tile = image.tile(tx, ty);
+                for (int y = y0; y < y1; y++) {
+                    for (int i = y * t + x0, end = y * t + x1; i < end; i++) {
+                        tile.put(i, tile.get(i) ^ 0x00FFFFFF);
+                    }
+                }
             }
         }
-        return result;
+        return image;
+    }
+
+    // ── Kernels ───────────────────────────────────────────────────────────
+
+    /**
+     * Inverts the R, G, B channels of every pixel in [rx1,rx2)×[ry1,ry2),
+     * in place.  The region must already be clamped to the image.  Large
+     * regions are split into row bands on the {@link ParallelTiles} pool.
+     */
+    static void invertRegion(BufferedImage img, int rx1, int ry1, int rx2, int ry2) {
+        ParallelTiles.forEachBand(ry1, ry2, rx2 - rx1,
+            (from, to) -> invertRows(img, rx1, from, rx2, to));
+    }
+
+    /**
+     * Sequential kernel: inverts rows [ry1, ry2) between columns rx1 and
+     * rx2, one row span at a time through {@link InvertKernel#SELECTED}.
+     */
+    private static void invertRows(BufferedImage img, int rx1, int ry1, int rx2, int ry2) {
+        int w = rx2 - rx1;
+        InvertKernel kernel = InvertKernel.SELECTED;
+
+        switch (directLayout(img)) {
+            case INT_RGB -> {
+                // R, G and B occupy the low 24 bits in every int layout we accept
+                int[] data = RasterAccess.ints(img);
+                int stride = img.getWidth();
+                for (int y = ry1; y < ry2; y++) {
+                    int from = y * stride + rx1;
+                    kernel.xor(data, from, from + w, 0x00FFFFFF);
+                }
+            }
+            case BYTE_BGR -> {
+                // Every byte is a colour channel: the whole row span flips
+                byte[] data = RasterAccess.bytes(img);
+                int stride = img.getWidth() * 3;
+                for (int y = ry1; y < ry2; y++) {
+                    int from = y * stride + rx1 * 3;
+                    kernel.xor(data, from, from + w * 3, -1);
+                }
+            }
+            case BYTE_ABGR -> {
+                // Byte 0 of each pixel is alpha: keep it, flip B, G, R
+                byte[] data = RasterAccess.bytes(img);
+                int stride = img.getWidth() * 4;
+                for (int y = ry1; y < ry2; y++) {
+                    int from = y * stride + rx1 * 4;
+                    kernel.xor(data, from, from + w * 4, 0x00FFFFFF);
+                }
+            }
+            default -> {
+                // Premultiplied, grey, indexed, 16-bit… : go through ARGB,
+                // one bulk row at a time instead of one call per pixel
+                int[] row = new int[w];
+                for (int y = ry1; y < ry2; y++) {
+                    img.getRGB(rx1, y, w, 1, row, 0, w);
+                    kernel.xor(row, 0, w, 0x00FFFFFF); // keep alpha
+                    img.setRGB(rx1, y, w, 1, row, 0, w);
+                }
+            }
+        }
+    }
+
+    /**
+     * Inversions of disjoint regions as one walk down the rows, for
+     * {@link RegionBatch}.  The rows are cut into runs wherever a region
+     * starts or ends, so every row of a run is crossed by the same regions;
+     * the runs and their spans, left to right, are worked out once when the
+     * sweep is built.  Inverting then visits each row once, in memory order,
+     * whatever the number of regions on it.
+     */
+    static final class Sweep {
+
+        private final int[] starts, ends;   // rows of each run
+        private final int[][] xs, widths;   // spans of each run, by x
+        private final int widest;
+
+        /** @param regions non-empty, pairwise disjoint, clamped to the image */
+        Sweep(List<Rectangle> regions) {
+            TreeSet<Integer> cuts = new TreeSet<>();
+            int widest = 0;
+            for (Rectangle r : regions) {
+                cuts.add(r.y);
+                cuts.add(r.y + r.height);
+                widest = Math.max(widest, r.width);
+            }
+            List<Rectangle> byX = new ArrayList<>(regions);
+            byX.sort(Comparator.comparingInt(r -> r.x));
+
+            int[] starts = new int[cuts.size()], ends = new int[cuts.size()];
+            int[][] xs = new int[cuts.size()][], widths = new int[cuts.size()][];
+            int runs = 0;
+            int[] x = new int[regions.size()], w = new int[regions.size()];
+            for (int from = cuts.pollFirst(); !cuts.isEmpty(); from = cuts.pollFirst()) {
+                int n = 0;
+                for (Rectangle r : byX) {
+                    if (r.y > from || r.y + r.height <= from) continue;
+                    x[n] = r.x;
+                    w[n++] = r.width;
+                }
+                if (n == 0) continue;   // a gap between regions
+                starts[runs] = from;
+                ends[runs] = cuts.first();
+                xs[runs] = Arrays.copyOf(x, n);
+                widths[runs++] = Arrays.copyOf(w, n);
+            }
+            this.starts = Arrays.copyOf(starts, runs);
+            this.ends = Arrays.copyOf(ends, runs);
+            this.xs = Arrays.copyOf(xs, runs);
+            this.widths = Arrays.copyOf(widths, runs);
+            this.widest = widest;
+        }
+
+        /** @return the first row any region covers */
+        int top() { return starts[0]; }
+
+        /** @return one past the last row any region covers */
+        int bottom() { return ends[ends.length - 1]; }
+
+        /** Sequential kernel: inverts every region's part of rows [from, to). */
+        void invert(BufferedImage img, int from, int to) {
+            SpanInverter inverter = spanInverter(img, widest);
+            int stride = img.getWidth();
+            int run = Arrays.binarySearch(ends, from + 1);
+            for (run = run < 0 ? -run - 1 : run; run < starts.length && starts[run] < to; run++) {
+                int[] x = xs[run], w = widths[run];
+                for (int y = Math.max(from, starts[run]), end = Math.min(to, ends[run]); y < end; y++) {
+                    for (int i = 0; i < x.length; i++) inverter.invert(y * stride + x[i], w[i]);
+                }
+            }
+        }
+    }
+
+    /** Inverts {@code width} pixels of one row, from pixel {@code first} = y × image width + x. */
+    private interface SpanInverter {
+        void invert(int first, int width);
+    }
+
+    /**
+     * @param widest widest span that will be inverted
+     * @return an inverter for the image's layout, its backing array looked
+     *         up once
+     */
+    private static SpanInverter spanInverter(BufferedImage img, int widest) {
+        InvertKernel kernel = InvertKernel.SELECTED;
+
+        // The masks and fallback of invertRows, per span
+        switch (directLayout(img)) {
+            case INT_RGB -> {
+                int[] data = RasterAccess.ints(img);
+                return (first, w) -> kernel.xor(data, first, first + w, 0x00FFFFFF);
+            }
+            case BYTE_BGR -> {
+                byte[] data = RasterAccess.bytes(img);
+                return (first, w) -> kernel.xor(data, first * 3, (first + w) * 3, -1);
+            }
+            case BYTE_ABGR -> {
+                byte[] data = RasterAccess.bytes(img);
+                return (first, w) -> kernel.xor(data, first * 4, (first + w) * 4, 0x00FFFFFF);
+            }
+            default -> {
+                int[] row = new int[widest];
+                int stride = img.getWidth();
+                return (first, w) -> {
+                    int x = first % stride, y = first / stride;
+                    img.getRGB(x, y, w, 1, row, 0, w);
+                    kernel.xor(row, 0, w, 0x00FFFFFF);
+                    img.setRGB(x, y, w, 1, row, 0, w);
+                };
+            }
+        }
+    }
+
+    /** Raster layouts where inversion is a plain XOR on the backing array. */
+    private enum Layout { INT_RGB, BYTE_BGR, BYTE_ABGR, OTHER }
+
+    private static Layout directLayout(BufferedImage img) {
+        if (!RasterAccess.isDirect(img)) return Layout.OTHER;
+        return switch (img.getType()) {
+            case BufferedImage.TYPE_INT_RGB,
+                 BufferedImage.TYPE_INT_ARGB,
+                 BufferedImage.TYPE_INT_BGR   -> Layout.INT_RGB;
+            case BufferedImage.TYPE_3BYTE_BGR  -> Layout.BYTE_BGR;
+            case BufferedImage.TYPE_4BYTE_ABGR -> Layout.BYTE_ABGR;
+            default -> Layout.OTHER;
+        };
+    }
+
+    /** @return the region as given (normalised, not clamped) */
+    public Rectangle getRegion() {
+        return new Rectangle(x1, y1, x2 - x1, y2 - y1);
+    }
+
+    /** Pixels stay where they are. */
+    @Override
+    public Rectangle outputRegion(Rectangle input, int width, int height) {
+        return new Rectangle(input);
     }
 
-    // ── Helper ────────────────────────────────────────────────────────────
+    /** Each output pixel depends only on the input pixel at the same place. */
+    @Override
+    public Rectangle inputRegion(Rectangle output, int width, int height) {
+        return new Rectangle(output);
+    }
+
+    /** Only the region, clamped to the image, is inverted. */
+    @Override
+    public Rectangle changedRegion(int width, int height) {
+        return getRegion().intersection(new Rectangle(width, height));
+    }
+
+    /** Inverting again restores the pixels wherever inversion is a lossless XOR. */
+    @Override
+    public ImageOperation inverse(int width, int height, int imageType) {
+        return isSelfInverse(imageType) ? this : null;
+    }
+
+    /**
+     * Inversions commute with each other whatever their regions (a pixel
+     * inside both is inverted twice either way), and with a rotation that
+     * only moves pixels within this region, since every pixel there is
+     * inverted alike.
+     */
+    @Override
+    public boolean commutesWith(ImageOperation other, int width, int height) {
+        if (other instanceof InvertOperation) return true;
+        if (other instanceof RotateOperation rot && rot.isPermutation(width, height)
+                && changedRegion(width, height).contains(rot.changedRegion(width, height))) {
+            return true;
+        }
+        return super.commutesWith(other, width, height);
+    }
+
+    @Override
+    public InvertOperation restrictTo(Rectangle window, int width, int height) {
+        return translate(-window.x, -window.y);
+    }
+
+    /** @return the same inversion with its region shifted by (dx, dy) */
+    public InvertOperation translate(int dx, int dy) {
+        return new InvertOperation(x1 + dx, y1 + dy, x2 + dx, y2 + dy);
+    }
 
     /**
-     * Creates an independent pixel-by-pixel copy of a BufferedImage.
+     * @return true if inverting twice restores {@code imageType} bit for bit,
+     *         i.e. inversion is a plain XOR on the stored channels
      */
-    private static BufferedImage deepCopy(BufferedImage src) {
-        BufferedImage copy = new BufferedImage(
-            src.getWidth(), src.getHeight(), src.getType());
-        copy.getGraphics().drawImage(src, 0, 0, null);
-        return copy;
+    public static boolean isSelfInverse(int imageType) {
+        return switch (imageType) {
+            case BufferedImage.TYPE_INT_RGB,
+                 BufferedImage.TYPE_INT_ARGB,
+                 BufferedImage.TYPE_INT_BGR,
+                 BufferedImage.TYPE_3BYTE_BGR,
+                 BufferedImage.TYPE_4BYTE_ABGR -> true;
+            default -> false;
+        };
+    }
+
+    @Override
+    public InvertOperation downscaled(int level) {
+        if (level == 0) return this;
+        return new InvertOperation(
+            ScalableOperation.scaleStart(x1, level), ScalableOperation.scaleStart(y1, level),
+            ScalableOperation.scaleEnd(x2, level),   ScalableOperation.scaleEnd(y2, level));
     }
 
     @Override
@@ -0,0 +1,145 @@
+package operations;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ParallelTiles.java
+ * ------------------
+ * Splits a region's rows into bands and runs them on a ForkJoinPool;
+ * {@link #forEachTask} spreads many independent small tasks the same way.
+ *
+ * Regions smaller than the threshold (in pixels) run sequentially on the
+ * calling thread, so small edits pay no scheduling cost.  Bands always
+ * cover whole rows of the region; callers must only touch rows of their
+ * own band.
+ *
+ * Both the pool and the threshold are process-wide settings, e.g.
+ * {@code ParallelTiles.setPool(new ForkJoinPool(16))}.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class ParallelTiles {
+
+    /** Work for one band of rows [from, to). */
+    @FunctionalInterface
+    public interface BandTask {
+        void run(int from, int to);
+    }
+
+    /** Work for task {@code index}. */
+    @FunctionalInterface
+    public interface IntTask {
+        void run(int index);
+    }
+
+    private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+    private static volatile int threshold = 1 << 18;   // 256 K pixels
+
+    private ParallelTiles() { }
+
+    // ── Configuration ─────────────────────────────────────────────────────
+
+    public static ForkJoinPool getPool() { return pool; }
+
+    /** Sets the pool used for every parallel operation. */
+    public static void setPool(ForkJoinPool newPool) {
+        if (newPool == null) throw new IllegalArgumentException("pool must not be null");
+        pool = newPool;
+    }
+
+    public static int getThreshold() { return threshold; }
+
+    /**
+     * Sets the smallest amount of work, in pixels, that is worth a task of
+     * its own.  Regions up to this size run sequentially.
+     */
+    public static void setThreshold(int pixels) {
+        if (pixels < 1) throw new IllegalArgumentException("threshold must be positive");
+        threshold = pixels;
+    }
+
+    // ── Execution ─────────────────────────────────────────────────────────
+
+    /**
+     * Runs {@code task} over rows [from, to) of a region {@code rowWidth}
+     * pixels wide, in parallel bands when the region exceeds the threshold.
+     */
+    public static void forEachBand(int from, int to, int rowWidth, BandTask task) {
+        long pixels = (long) (to - from) * rowWidth;
+        ForkJoinPool p = pool;
+        if (pixels <= threshold || p.getParallelism() <= 1 || to - from < 2) {
+            task.run(from, to);
+            return;
+        }
+        int minRows = Math.max(1, threshold / Math.max(1, rowWidth));
+        p.invoke(new Band(from, to, minRows, task));
+    }
+
+    /**
+     * Runs {@code task} for every index in [0, work.length), where
+     * {@code work[i]} is the size of task i in pixels.  Tasks must be
+     * independent; runs of them are spread over the pool once they add up
+     * to more than the threshold, so many small tasks still use every core.
+     */
+    public static void forEachTask(long[] work, IntTask task) {
+        long[] prefix = new long[work.length + 1];
+        for (int i = 0; i < work.length; i++) prefix[i + 1] = prefix[i] + work[i];
+        ForkJoinPool p = pool;
+        if (prefix[work.length] <= threshold || p.getParallelism() <= 1 || work.length < 2) {
+            for (int i = 0; i < work.length; i++) task.run(i);
+            return;
+        }
+        p.invoke(new Tasks(0, work.length, prefix, task));
+    }
+
+    private static final class Tasks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+        private final long[] prefix;
+        private final IntTask task;
+
+        Tasks(int from, int to, long[] prefix, IntTask task) {
+            this.from = from;
+            this.to = to;
+            this.prefix = prefix;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < 2 || prefix[to] - prefix[from] <= threshold) {
+                for (int i = from; i < to; i++) task.run(i);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Tasks(from, mid, prefix, task), new Tasks(mid, to, prefix, task));
+        }
+    }
+
+    private static final class Band extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to, minRows;
+        private final BandTask task;
+
+        Band(int from, int to, int minRows, BandTask task) {
+            this.from = from;
+            this.to = to;
+            this.minRows = minRows;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= minRows) {
+                task.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Band(from, mid, minRows, task), new Band(mid, to, minRows, task));
+        }
+    }
+}
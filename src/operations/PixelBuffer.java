@@ -0,0 +1,173 @@
+package operations;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * PixelBuffer.java
+ * ----------------
+ * A rectangle of packed pixels (see {@link RasterAccess}) in a flat
+ * {@code int[]}: pixel (x, y) lives at {@code offset + y * stride + x}.
+ *
+ * A buffer from {@link #allocate} owns a pooled array and hands it back
+ * to {@link PixelPool} on {@link #close}; {@link #region} returns views
+ * that share the array (for example one band of rows per thread) and own
+ * nothing.  Buffers are not thread-safe, but views over disjoint rows can
+ * be written concurrently.
+ *
+ * The rotations walk the image in square blocks small enough that a block
+ * of the source and of the destination both stay in L1 cache, instead of
+ * striding down a whole column of the source for every destination row.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class PixelBuffer implements AutoCloseable {
+
+    /** Side of the square blocks used by the 90°/270° rotations. */
+    private static final int BLOCK = 32;
+
+    private final int[] data;
+    private final int offset, width, height, stride;
+    private boolean owned;
+
+    private PixelBuffer(int[] data, int offset, int width, int height, int stride, boolean owned) {
+        this.data   = data;
+        this.offset = offset;
+        this.width  = width;
+        this.height = height;
+        this.stride = stride;
+        this.owned  = owned;
+    }
+
+    /**
+     * Returns a width×height buffer backed by a pooled array.  Its pixels
+     * are arbitrary until written.
+     */
+    public static PixelBuffer allocate(int width, int height) {
+        if (width < 0 || height < 0) {
+            throw new IllegalArgumentException("Invalid size " + width + "×" + height);
+        }
+        return new PixelBuffer(PixelPool.acquire(Math.multiplyExact(width, height)),
+                               0, width, height, width, true);
+    }
+
+    /** Returns a buffer over an existing array; closing it does nothing. */
+    public static PixelBuffer wrap(int[] data, int offset, int width, int height, int stride) {
+        if (width < 0 || height < 0 || stride < width || offset < 0
+                || (height > 0 && offset + (long) (height - 1) * stride + width > data.length)) {
+            throw new IllegalArgumentException("Buffer " + width + "×" + height
+                + " (stride " + stride + ", offset " + offset + ") does not fit the array");
+        }
+        return new PixelBuffer(data, offset, width, height, stride, false);
+    }
+
+    /** @return a view of the w×h rectangle at (x, y), sharing this buffer's array */
+    public PixelBuffer region(int x, int y, int w, int h) {
+        if (x < 0 || y < 0 || w < 0 || h < 0 || x + w > width || y + h > height) {
+            throw new IllegalArgumentException("Region (" + x + "," + y + ") " + w + "×" + h
+                + " is outside the " + width + "×" + height + " buffer");
+        }
+        return new PixelBuffer(data, offset + y * stride + x, w, h, stride, false);
+    }
+
+    // ── Accessors ─────────────────────────────────────────────────────────
+
+    public int[] data()   { return data; }
+    public int offset()   { return offset; }
+    public int width()    { return width; }
+    public int height()   { return height; }
+    public int stride()   { return stride; }
+
+    public int get(int x, int y)           { return data[offset + y * stride + x]; }
+    public void set(int x, int y, int v)   { data[offset + y * stride + x] = v; }
+
+    // ── Image transfer ────────────────────────────────────────────────────
+
+    /** Fills the buffer from the same-sized rectangle of {@code image} at (x, y). */
+    public void read(BufferedImage image, int x, int y) {
+        RasterAccess.readPacked(image, x, y, width, height, data, offset, stride);
+    }
+
+    /** Writes the buffer to {@code image} at (x, y). */
+    public void write(BufferedImage image, int x, int y) {
+        RasterAccess.writePacked(image, x, y, width, height, data, offset, stride);
+    }
+
+    // ── Rotation ──────────────────────────────────────────────────────────
+
+    /**
+     * Fills {@code dst} with the part of this buffer, rotated clockwise by
+     * {@code degrees}, whose top-left corner is (gx0, gy0) in the rotated
+     * grid.  The window must lie inside the rotated grid, and {@code dst}
+     * must not overlap this buffer.
+     *
+     * @param degrees 90, 180, or 270
+     */
+    public void rotateInto(PixelBuffer dst, int degrees, int gx0, int gy0) {
+        int rotW = degrees == 180 ? width : height;
+        int rotH = degrees == 180 ? height : width;
+        if (gx0 < 0 || gy0 < 0 || gx0 + dst.width > rotW || gy0 + dst.height > rotH) {
+            throw new IllegalArgumentException("Window (" + gx0 + "," + gy0 + ") " + dst.width
+                + "×" + dst.height + " is outside the rotated " + rotW + "×" + rotH + " grid");
+        }
+        switch (degrees) {
+            case 90  -> rotate90(dst, gx0, gy0);
+            case 180 -> rotate180(dst, gx0, gy0);
+            case 270 -> rotate270(dst, gx0, gy0);
+            default  -> throw new IllegalArgumentException(
+                "degrees must be 90, 180, or 270. Got: " + degrees);
+        }
+    }
+
+    /** rotated(gx, gy) = src(gy, height-1-gx) */
+    private void rotate90(PixelBuffer dst, int gx0, int gy0) {
+        int[] out = dst.data;
+        for (int by = 0; by < dst.height; by += BLOCK) {
+            int ey = Math.min(by + BLOCK, dst.height);
+            for (int bx = 0; bx < dst.width; bx += BLOCK) {
+                int ex = Math.min(bx + BLOCK, dst.width);
+                // One source row per destination column: reads run along the row
+                for (int i = bx; i < ex; i++) {
+                    int s = offset + (height - 1 - gx0 - i) * stride + gy0 + by;
+                    int d = dst.offset + by * dst.stride + i;
+                    for (int j = by; j < ey; j++, s++, d += dst.stride) out[d] = data[s];
+                }
+            }
+        }
+    }
+
+    /** rotated(gx, gy) = src(width-1-gx, height-1-gy): each row copied backwards */
+    private void rotate180(PixelBuffer dst, int gx0, int gy0) {
+        int[] out = dst.data;
+        for (int j = 0; j < dst.height; j++) {
+            int s = offset + (height - 1 - gy0 - j) * stride + (width - 1 - gx0);
+            int d = dst.offset + j * dst.stride;
+            for (int i = 0; i < dst.width; i++) out[d + i] = data[s - i];
+        }
+    }
+
+    /** rotated(gx, gy) = src(width-1-gy, gx) */
+    private void rotate270(PixelBuffer dst, int gx0, int gy0) {
+        int[] out = dst.data;
+        for (int by = 0; by < dst.height; by += BLOCK) {
+            int ey = Math.min(by + BLOCK, dst.height);
+            for (int bx = 0; bx < dst.width; bx += BLOCK) {
+                int ex = Math.min(bx + BLOCK, dst.width);
+                for (int i = bx; i < ex; i++) {
+                    int s = offset + (gx0 + i) * stride + (width - 1 - gy0 - by);
+                    int d = dst.offset + by * dst.stride + i;
+                    for (int j = by; j < ey; j++, s--, d += dst.stride) out[d] = data[s];
+                }
+            }
+        }
+    }
+
+    /** Returns the array to the pool if this buffer owns it; views do nothing. */
+    @Override
+    public void close() {
+        if (owned) {
+            owned = false;
+            PixelPool.release(data);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package operations;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PixelPool.java
+ * --------------
+ * Recycles the {@code int[]} arrays behind {@link PixelBuffer}s, so
+ * repeated operations on regions of similar size stop allocating.
+ *
+ * Arrays are kept in size buckets, four to each power of two (2^k,
+ * 1.25·2^k, 1.5·2^k, 1.75·2^k): a request for n ints is served by any
+ * array of the bucket n rounds up to, wasting at most a quarter of n.
+ * Small arrays are cheaper to allocate than to pool and are never
+ * retained; the total size of retained arrays is capped, and arrays beyond
+ * the cap are left to the garbage collector.
+ *
+ * Pooled arrays are not cleared, so their contents are arbitrary.  The
+ * capacity is a process-wide setting, e.g. {@code PixelPool.setCapacity(0)}
+ * turns pooling off.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class PixelPool {
+
+    /** Arrays below this many ints (64 KB) are not pooled. */
+    static final int MIN_POOLED = 1 << 14;
+
+    /** Bucket size → pooled arrays of exactly that length. */
+    private static final Map<Integer, ConcurrentLinkedDeque<int[]>> BUCKETS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong retained = new AtomicLong();
+    private static volatile long capacity = Runtime.getRuntime().maxMemory() / 8;
+
+    private PixelPool() { }
+
+    // ── Configuration ─────────────────────────────────────────────────────
+
+    /** @return the most bytes the pool keeps alive */
+    public static long getCapacity() { return capacity; }
+
+    /** Sets the most bytes the pool keeps alive; 0 disables pooling. */
+    public static void setCapacity(long bytes) {
+        if (bytes < 0) throw new IllegalArgumentException("capacity must not be negative");
+        capacity = bytes;
+        if (retained.get() > bytes) clear();
+    }
+
+    /** @return bytes held by arrays currently waiting in the pool */
+    public static long retainedBytes() { return retained.get(); }
+
+    /** Drops every pooled array. */
+    public static void clear() {
+        for (ConcurrentLinkedDeque<int[]> bucket : BUCKETS.values()) {
+            for (int[] a; (a = bucket.pollFirst()) != null; ) retained.addAndGet(-4L * a.length);
+        }
+    }
+
+    // ── Acquire / release ─────────────────────────────────────────────────
+
+    /**
+     * Returns an array of at least {@code length} ints, from the pool if one
+     * is available.  Its contents are arbitrary.
+     */
+    public static int[] acquire(int length) {
+        if (length < 0) throw new IllegalArgumentException("length must not be negative");
+        if (length < MIN_POOLED) return new int[length];
+        int size = bucketSize(length);
+        if (size < 0) return new int[length];
+        ConcurrentLinkedDeque<int[]> bucket = BUCKETS.get(size);
+        int[] a = bucket == null ? null : bucket.pollFirst();
+        if (a == null) return new int[size];
+        retained.addAndGet(-4L * a.length);
+        return a;
+    }
+
+    /**
+     * Hands an array obtained from {@link #acquire} back to the pool.  The
+     * caller must not touch it afterwards.
+     */
+    public static void release(int[] array) {
+        int n = array.length;
+        if (n < MIN_POOLED || bucketSize(n) != n) return;   // not one of ours
+        long bytes = 4L * n;
+        if (retained.addAndGet(bytes) > capacity) {
+            retained.addAndGet(-bytes);
+            return;
+        }
+        BUCKETS.computeIfAbsent(n, k -> new ConcurrentLinkedDeque<>())
+               .offerFirst(array);   // LIFO: the warmest array goes out next
+    }
+
+    /** @return the bucket {@code length} rounds up to, or -1 if that overflows */
+    private static int bucketSize(int length) {
+        int step = Integer.highestOneBit(length) >> 2;   // a quarter of 2^k
+        long size = ((long) length + step - 1) / step * step;
+        return size > Integer.MAX_VALUE - 8 ? -1 : (int) size;
+    }
+}
@@ -0,0 +1,220 @@
+package operations;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * RegionBatch.java
+ * ----------------
+ * Consecutive region operations fused into one step, so a long run of
+ * small edits (e.g. redacting hundreds of boxes) is one step instead of
+ * one each.
+ *
+ * {@link #group} compiles a plan: it collects runs of in-place
+ * operations whose changed regions ({@link ImageOperation#changedRegion})
+ * do not overlap and that commute with each other
+ * ({@link ImageOperation#commutesWith}).  Such operations are
+ * independent, so a batch may run them in any order and all at once:
+ *
+ *   - inversions share a single pass ({@link InvertOperation.Sweep}): one
+ *     walk down the rows they cover, each row inverting every member's
+ *     span on it from left to right, in parallel row bands;
+ *   - every other member (a rotation must read its whole region before
+ *     writing any of it) runs as a task of its own on the
+ *     {@link ParallelTiles} pool, writing straight into the one shared
+ *     buffer.
+ *
+ * The work is the total area of the regions, plus one copy for
+ * {@link #apply}.
+ *
+ * A batch only exists in an execution plan; it is never stored in a
+ * pipeline file.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class RegionBatch extends ImageOperation implements InPlaceOperation {
+
+    /** Largest batch {@link #group} builds; joining costs a check against every member. */
+    static final int MAX_SIZE = 256;
+
+    private final List<ImageOperation> operations;
+    private final int width, height;
+
+    private final InvertOperation.Sweep inversions;   // null: no inversions
+    private final long invertedArea;
+
+    private final List<ImageOperation> others;
+    private final long[] work;
+
+    /**
+     * @param operations in-place operations with disjoint, non-empty changed
+     *                   regions that commute pairwise, for a width×height image
+     * @throws IllegalArgumentException if they cannot run as one batch
+     */
+    public RegionBatch(List<? extends ImageOperation> operations, int width, int height) {
+        List<ImageOperation> ops = new ArrayList<>(operations);
+        for (int i = 0; i < ops.size(); i++) {
+            if (!canJoin(ops.get(i), ops.subList(0, i), width, height)) {
+                throw new IllegalArgumentException(ops.get(i) + " cannot join the batch");
+            }
+        }
+        // Any order gives the same result; top to bottom walks memory in order
+        ops.sort(Comparator.comparingInt((ImageOperation op) -> op.changedRegion(width, height).y)
+                           .thenComparingInt(op -> op.changedRegion(width, height).x));
+        this.operations = List.copyOf(ops);
+        this.width = width;
+        this.height = height;
+
+        List<Rectangle> regions = new ArrayList<>();
+        List<ImageOperation> rest = new ArrayList<>();
+        long area = 0;
+        for (ImageOperation op : ops) {
+            Rectangle r = op.changedRegion(width, height);
+            if (op instanceof InvertOperation) {
+                regions.add(r);
+                area += (long) r.width * r.height;
+            } else {
+                rest.add(op);
+            }
+        }
+        this.inversions = regions.isEmpty() ? null : new InvertOperation.Sweep(regions);
+        this.invertedArea = area;
+        this.others = List.copyOf(rest);
+        this.work = new long[rest.size()];
+        for (int i = 0; i < work.length; i++) {
+            Rectangle r = rest.get(i).changedRegion(width, height);
+            work[i] = (long) r.width * r.height;
+        }
+    }
+
+    /**
+     * Replaces every run of two or more operations of {@code plan} that can
+     * share a batch with one {@link RegionBatch}.  Runs are greedy and stop
+     * at the first operation that cannot join.
+     *
+     * @param width  width of the image the plan starts from
+     * @param height height of the image the plan starts from
+     * @return the plan with batches; {@code plan} itself if nothing was fused
+     */
+    public static List<ImageOperation> group(List<ImageOperation> plan, int width, int height) {
+        List<ImageOperation> result = new ArrayList<>(plan.size());
+        List<ImageOperation> run = new ArrayList<>();
+        int w = width, h = height;
+        boolean fused = false;
+
+        for (int i = 0; i < plan.size(); i++) {
+            ImageOperation op = plan.get(i);
+            if (run.size() < MAX_SIZE && canJoin(op, run, w, h)) {
+                run.add(op);
+                continue;
+            }
+            fused |= flush(run, result, w, h);
+            if (canJoin(op, run, w, h)) {
+                run.add(op);
+                continue;
+            }
+            result.add(op);
+            Rectangle size = op.outputRegion(new Rectangle(w, h), w, h);
+            if (size == null || size.isEmpty()) {   // unknown size, or it throws
+                result.addAll(plan.subList(i + 1, plan.size()));
+                return fused ? result : plan;
+            }
+            w = size.width;
+            h = size.height;
+        }
+        fused |= flush(run, result, w, h);
+        return fused ? result : plan;
+    }
+
+    /** @return the fused operations, top to bottom */
+    public List<ImageOperation> getOperations() { return operations; }
+
+    /** Copies {@code image} once and runs every operation on the copy. */
+    @Override
+    public BufferedImage apply(BufferedImage image) {
+        BufferedImage result = RasterAccess.copy(image);
+        applyInPlace(result);
+        return result;
+    }
+
+    /**
+     * Runs every operation directly in {@code image}: the inversions in one
+     * pass down their rows, split into bands once their area exceeds the
+     * {@link ParallelTiles} threshold, then the other members, several at
+     * once when the image is direct (see {@link RasterAccess#isDirect}).  In
+     * other layouts neighbouring pixels of one row may share an array
+     * element, so those members run one after another.
+     *
+     * @throws IllegalArgumentException if the image is not the size the
+     *                                  batch was built for
+     */
+    @Override
+    public void applyInPlace(BufferedImage image) {
+        if (image.getWidth() != width || image.getHeight() != height) {
+            throw new IllegalArgumentException(String.format(
+                "Batch built for %d×%d, image is %d×%d",
+                width, height, image.getWidth(), image.getHeight()));
+        }
+        if (inversions != null) {
+            int top = inversions.top(), bottom = inversions.bottom();
+            int rowWork = (int) Math.min(Integer.MAX_VALUE, invertedArea / (bottom - top));
+            ParallelTiles.forEachBand(top, bottom, rowWork,
+                (from, to) -> inversions.invert(image, from, to));
+        }
+        if (!RasterAccess.isDirect(image)) {
+            for (ImageOperation op : others) ((InPlaceOperation) op).applyInPlace(image);
+            return;
+        }
+        ParallelTiles.forEachTask(work,
+            i -> ((InPlaceOperation) others.get(i)).applyInPlace(image));
+    }
+
+    /** The bounding box of every member's region. */
+    @Override
+    public Rectangle changedRegion(int width, int height) {
+        Rectangle box = new Rectangle();
+        for (ImageOperation op : operations) box = box.union(op.changedRegion(width, height));
+        return box.intersection(new Rectangle(width, height));
+    }
+
+    /** Pixels stay where they are. */
+    @Override
+    public Rectangle outputRegion(Rectangle input, int width, int height) {
+        return new Rectangle(input);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RegionBatch  %d operations", operations.size());
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    /**
+     * @return true if {@code op} can run in the same batch as {@code members}:
+     *         it works in place on a non-empty region of the w×h image that
+     *         overlaps none of theirs, and commutes with all of them
+     */
+    private static boolean canJoin(ImageOperation op, List<ImageOperation> members, int w, int h) {
+        if (!(op instanceof InPlaceOperation) || op instanceof RegionBatch) return false;
+        Rectangle r = op.changedRegion(w, h);
+        if (r == null || r.isEmpty()) return false;
+        for (ImageOperation m : members) {
+            if (r.intersects(m.changedRegion(w, h)) || !op.commutesWith(m, w, h)) return false;
+        }
+        return true;
+    }
+
+    /** Moves {@code run} into {@code result}, as a batch if it has two or more operations. */
+    private static boolean flush(List<ImageOperation> run, List<ImageOperation> result, int w, int h) {
+        boolean fused = run.size() > 1;
+        if (fused) result.add(new RegionBatch(run, w, h));
+        else result.addAll(run);
+        run.clear();
+        return fused;
+    }
+}
@@ -1,31 +1,62 @@
 package operations;
 
-import java.awt.Graphics2D;
+import tiled.TiledImage;
+import tiled.TiledOperation;
+
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.util.Set;
 
 /**
  * RotateOperation.java
  * --------------------
- * Rotates a rectangular region inside the image by 90°, 180°, or 270°
- * (clockwise).  Pixels outside the region are left untouched.
+ * Rotates a rectangular region inside the image clockwise about its
+ * centre.  Pixels outside the region are left untouched.
  * Blank pixels introduced by 90°/270° rotations (when the region is not
  * square) are filled with black (0,0,0), as shown in the slides.
  *
+ * Right angles (90°, 180°, 270°) move whole pixels exactly.  Any other
+ * angle (e.g. a fraction of a degree to deskew a scan) resamples the
+ * region with the chosen {@link Interpolation} (see
+ * {@link RotationSampler}); the result is clipped to the region and its
+ * corners, which no source pixel maps to, are black.  A negative angle
+ * turns counter-clockwise.
+ *
  * Weight: 20% of the partial grade.
  *
  * Multimedia & Computer Graphics – First Partial
  * Universidad Panamericana | 2026
  */
-public class RotateOperation extends ImageOperation {
+public class RotateOperation extends ImageOperation
+                             implements InPlaceOperation, ScalableOperation, TiledOperation {
+
+    /** How pixels are sampled between grid positions at angles other than right angles. */
+    public enum Interpolation {
+        /** The closest source pixel: fastest, keeps hard edges, jagged lines. */
+        NEAREST,
+        /** Weighted mean of the 2×2 closest pixels. */
+        BILINEAR,
+        /** Catmull-Rom over the 4×4 closest pixels: sharpest, slowest. */
+        BICUBIC
+    }
 
-    /** Allowed rotation angles in degrees (clockwise). */
+    /** Angles the whole-degree constructor accepts (clockwise). */
     private static final Set<Integer> VALID_ANGLES = Set.of(90, 180, 270);
 
+    /** Destination rows rotated into a cache-sized strip before each write. */
+    private static final int STRIP_ROWS = 32;
+
     private final int x1, y1, x2, y2;
-    private final int degrees;
+    private final double degrees;            // normalised to [0, 360)
+    private final int rightAngle;            // 0, 90, 180 or 270; -1 for other angles
+    private final Interpolation interpolation;
 
     /**
+     * A right-angle rotation, which moves whole pixels exactly.  Any other
+     * angle is resampled, so it takes the constructor that names an
+     * {@link Interpolation}.
+     *
      * @param x1      x-coordinate of the top-left corner of the region
      * @param y1      y-coordinate of the top-left corner of the region
      * @param x2      x-coordinate of the bottom-right corner of the region
@@ -34,15 +65,34 @@ public class RotateOperation extends ImageOperation {
      * @throws IllegalArgumentException if degrees is not 90, 180, or 270
      */
     public RotateOperation(int x1, int y1, int x2, int y2, int degrees) {
-        if (!VALID_ANGLES.contains(degrees)) {
-            throw new IllegalArgumentException(
-                "degrees must be 90, 180, or 270. Got: " + degrees);
+        this(x1, y1, x2, y2, validRightAngle(degrees), Interpolation.BILINEAR);
+    }
+
+    /**
+     * A rotation by any angle; right angles still move whole pixels
+     * exactly, whatever the interpolation.
+     *
+     * @param degrees       clockwise rotation angle, any finite value
+     * @param interpolation sampling for angles that are not right angles
+     * @throws IllegalArgumentException if degrees is not finite or
+     *                                  interpolation is null
+     */
+    public RotateOperation(int x1, int y1, int x2, int y2, double degrees,
+                           Interpolation interpolation) {
+        if (!Double.isFinite(degrees)) {
+            throw new IllegalArgumentException("degrees must be finite. Got: " + degrees);
         }
+        if (interpolation == null) throw new IllegalArgumentException("interpolation must not be null");
         this.x1 = Math.min(x1, x2);
         this.y1 = Math.min(y1, y2);
         this.x2 = Math.max(x1, x2);
         this.y2 = Math.max(y1, y2);
-        this.degrees = degrees;
+        double d = degrees % 360;
+        if (d < 0) d += 360;
+        if (d >= 360) d = 0;                 // a tiny negative angle rounds up to 360
+        this.degrees = d + 0.0;              // no -0
+        this.rightAngle = d % 90 == 0 ? (int) d : -1;
+        this.interpolation = interpolation;
     }
 
     /**
@@ -54,10 +104,21 @@ public class RotateOperation extends ImageOperation {
      */
     @Override
     public BufferedImage apply(BufferedImage image) {
-        BufferedImage result = deepCopy(image);
+        BufferedImage result = RasterAccess.copy(image);
+        applyInPlace(result);
+        return result;
+    }
 
-        int imgW = result.getWidth();
-        int imgH = result.getHeight();
+    /**
+     * Rotates the selected region directly in {@code image}.
+     * Blank pixels are filled with black.
+     *
+     * @param image image to modify
+     */
+    @Override
+    public void applyInPlace(BufferedImage image) {
+        int imgW = image.getWidth();
+        int imgH = image.getHeight();
 
         // Clamp region to image boundaries
         int rx1 = Math.max(0, x1);
@@ -68,100 +129,317 @@ public class RotateOperation extends ImageOperation {
         int rW = rx2 - rx1;   // region width
         int rH = ry2 - ry1;   // region height
 
-        if (rW <= 0 || rH <= 0) return result; // nothing to rotate
+        if (rW <= 0 || rH <= 0 || rightAngle == 0) return; // nothing to rotate
+        if (rightAngle < 0) {
+            resample(image, rx1, ry1, rW, rH);
+            return;
+        }
+
+        int newW = (rightAngle == 180) ? rW : rH;  // dimensions after rotation
+        int newH = (rightAngle == 180) ? rH : rW;
+
+        // Paste position of the rotated grid, centred in the original region,
+        // and the part of it that falls inside the region
+        int pasteX = rx1 + (rW - newW) / 2;
+        int pasteY = ry1 + (rH - newH) / 2;
+        int dx1 = Math.max(pasteX, rx1), dx2 = Math.min(pasteX + newW, rx2);
+        int dy1 = Math.max(pasteY, ry1), dy2 = Math.min(pasteY + newH, ry2);
+        int outW = dx2 - dx1, outH = dy2 - dy1;
+
+        try (PixelBuffer region = PixelBuffer.allocate(rW, rH)) {
+
+            // ── Extract the region pixels ──────────────────────────────────
+            ParallelTiles.forEachBand(0, rH, rW, (from, to) ->
+                region.region(0, from, rW, to - from).read(image, rx1, ry1 + from));
 
-        // ── Extract the region pixels ──────────────────────────────────
-        int[][] pixels = new int[rH][rW];
-        for (int y = 0; y < rH; y++)
-            for (int x = 0; x < rW; x++)
-                pixels[y][x] = result.getRGB(rx1 + x, ry1 + y);
+            // ── Clear the original region to black ─────────────────────────
+            // (a same-size result overwrites every pixel, so skip the fill)
+            if (newW != rW || newH != rH) {
+                int black = RasterAccess.packedColor(image, 0xFF000000); // opaque black
+                RasterAccess.fillPacked(image, rx1, ry1, rW, rH, black);
+            }
+            if (outW <= 0 || outH <= 0) return;
 
-        // ── Rotate the pixel grid ──────────────────────────────────────
-        int[][] rotated = rotatePixels(pixels, rW, rH, degrees);
-        int newW = (degrees == 180) ? rW : rH;  // dimensions after rotation
-        int newH = (degrees == 180) ? rH : rW;
+            // ── Rotate the visible part and paste it, a strip at a time ────
+            int gx0 = dx1 - pasteX, gy0 = dy1 - pasteY;
+            ParallelTiles.forEachBand(0, outH, outW, (from, to) -> {
+                try (PixelBuffer strip = PixelBuffer.allocate(outW, Math.min(STRIP_ROWS, to - from))) {
+                    for (int y = from; y < to; y += strip.height()) {
+                        PixelBuffer rows = strip.region(0, 0, outW, Math.min(strip.height(), to - y));
+                        region.rotateInto(rows, rightAngle, gx0, gy0 + y);
+                        rows.write(image, dx1, dy1 + y);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Rotates the selected region of an out-of-core image in place.  The
+     * region is first copied to a scratch TiledImage; each destination
+     * block (aligned to the image's tiles) then reads the matching source
+     * block, rotates it in memory and writes it back, so only two blocks
+     * are ever on the heap.  Other angles work the same way, reading for
+     * each block the source rectangle its pixels are sampled from.
+     *
+     * @param image image to modify
+     * @return {@code image}
+     */
+    @Override
+    public TiledImage applyTiled(TiledImage image) throws IOException {
+        int rx1 = Math.max(0, x1);
+        int ry1 = Math.max(0, y1);
+        int rx2 = Math.min(image.getWidth(), x2);
+        int ry2 = Math.min(image.getHeight(), y2);
 
-        // ── Clear the original region to black ─────────────────────────
-        for (int y = ry1; y < ry2; y++)
-            for (int x = rx1; x < rx2; x++)
-                result.setRGB(x, y, 0xFF000000); // opaque black
+        int rW = rx2 - rx1;
+        int rH = ry2 - ry1;
+        if (rW <= 0 || rH <= 0 || rightAngle == 0) return image;
+        if (rightAngle < 0) return resampleTiled(image, rx1, ry1, rW, rH);
 
-        // ── Paste rotated pixels, centred in the original region ───────
+        int newW = (rightAngle == 180) ? rW : rH;
+        int newH = (rightAngle == 180) ? rH : rW;
         int pasteX = rx1 + (rW - newW) / 2;
         int pasteY = ry1 + (rH - newH) / 2;
+        int dx1 = Math.max(pasteX, rx1), dx2 = Math.min(pasteX + newW, rx2);
+        int dy1 = Math.max(pasteY, ry1), dy2 = Math.min(pasteY + newH, ry2);
 
-        for (int y = 0; y < newH; y++) {
-            for (int x = 0; x < newW; x++) {
-                int destX = pasteX + x;
-                int destY = pasteY + y;
-                if (destX >= rx1 && destX < rx2 && destY >= ry1 && destY < ry2) {
-                    result.setRGB(destX, destY, rotated[y][x]);
+        try (TiledImage region = copyOf(image, rx1, ry1, rW, rH)) {
+            if (newW != rW || newH != rH) {
+                image.fill(rx1, ry1, rW, rH, 0xFF000000);   // opaque black
+            }
+            if (dx2 <= dx1 || dy2 <= dy1) return image;
+
+            int t = image.getTileSize();
+            try (PixelBuffer block = PixelBuffer.allocate(t, t);
+                 PixelBuffer out = PixelBuffer.allocate(t, t)) {
+                    for (int by = dy1; by < dy2; by = (by / t + 1) * t) {
+                    int bh = Math.min(dy2, (by / t + 1) * t) - by;
+                    for (int bx = dx1; bx < dx2; bx = (bx / t + 1) * t) {
+                        int bw = Math.min(dx2, (bx / t + 1) * t) - bx;
+                        PixelBuffer dst = PixelBuffer.wrap(out.data(), 0, bw, bh, bw);
+                        rotatedBlock(region, rightAngle, bx - pasteX, by - pasteY, block.data(), dst);
+                        image.writeRegion(bx, by, bw, bh, dst.data(), 0, bw);
+                    }
                 }
             }
         }
-        return result;
+        return image;
     }
 
     // ── Private helpers ───────────────────────────────────────────────────
 
+    private static int validRightAngle(int degrees) {
+        if (!VALID_ANGLES.contains(degrees)) {
+            throw new IllegalArgumentException(
+                "degrees must be 90, 180, or 270. Got: " + degrees);
+        }
+        return degrees;
+    }
+
     /**
-     * Rotates a 2-D pixel array clockwise by the given angle.
-     *
-     * @param src     source pixel grid [rows][cols]
-     * @param srcW    number of columns
-     * @param srcH    number of rows
-     * @param degrees 90, 180, or 270
-     * @return rotated pixel grid
+     * Resamples the clamped region (rx1, ry1, rW, rH) at an angle that is
+     * not a right angle: the region is copied once, then destination rows
+     * are sampled from the copy in parallel bands, a strip at a time.
+     */
+    private void resample(BufferedImage image, int rx1, int ry1, int rW, int rH) {
+        RotationSampler sampler = new RotationSampler(rW, rH, degrees, interpolation,
+                                                      RasterAccess.packedColor(image, 0xFF000000));
+        try (PixelBuffer region = PixelBuffer.allocate(rW, rH)) {
+            ParallelTiles.forEachBand(0, rH, rW, (from, to) ->
+                region.region(0, from, rW, to - from).read(image, rx1, ry1 + from));
+
+            ParallelTiles.forEachBand(0, rH, rW, (from, to) -> {
+                try (PixelBuffer strip = PixelBuffer.allocate(rW, Math.min(STRIP_ROWS, to - from))) {
+                    for (int y = from; y < to; y += strip.height()) {
+                        PixelBuffer rows = strip.region(0, 0, rW, Math.min(strip.height(), to - y));
+                        for (int r = 0; r < rows.height(); r++) {
+                            sampler.row(region, 0, 0, 0, y + r, rW,
+                                        rows.data(), rows.offset() + r * rows.stride());
+                        }
+                        rows.write(image, rx1, ry1 + y);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Out-of-core counterpart of {@link #resample}: each destination block
+     * (aligned to the image's tiles) reads just its footprint from a
+     * scratch copy of the region, which for a block of side t is at most
+     * about 1.5·t on a side.
      */
-    private int[][] rotatePixels(int[][] src, int srcW, int srcH, int degrees) {
-        return switch (degrees) {
-            case 90  -> rotate90(src, srcW, srcH);
-            case 180 -> rotate180(src, srcW, srcH);
-            case 270 -> rotate270(src, srcW, srcH);
-            default  -> src; // unreachable – validated in constructor
-        };
-    }
-
-    /** Clockwise 90°: (x,y) → (srcH-1-y, x) in new grid of size srcH×srcW */
-    private int[][] rotate90(int[][] src, int srcW, int srcH) {
-        int[][] dst = new int[srcW][srcH]; // new dimensions: srcH rows, srcW cols → transposed
-        for (int y = 0; y < srcH; y++)
-            for (int x = 0; x < srcW; x++)
-                dst[x][srcH - 1 - y] = src[y][x];
-        return dst;
-    }
-
-    /** 180°: (x,y) → (srcW-1-x, srcH-1-y) */
-    private int[][] rotate180(int[][] src, int srcW, int srcH) {
-        int[][] dst = new int[srcH][srcW];
-        for (int y = 0; y < srcH; y++)
-            for (int x = 0; x < srcW; x++)
-                dst[srcH - 1 - y][srcW - 1 - x] = src[y][x];
-        return dst;
-    }
-
-    /** Clockwise 270° (= counter-clockwise 90°): (x,y) → (y, srcW-1-x) */
-    private int[][] rotate270(int[][] src, int srcW, int srcH) {
-        int[][] dst = new int[srcW][srcH];
-        for (int y = 0; y < srcH; y++)
-            for (int x = 0; x < srcW; x++)
-                dst[srcW - 1 - x][y] = src[y][x];
-        return dst;
-    }
-
-    /** Creates an independent copy of a BufferedImage. */
-    private static BufferedImage deepCopy(BufferedImage src) {
-        BufferedImage copy = new BufferedImage(
-            src.getWidth(), src.getHeight(), src.getType());
-        Graphics2D g = copy.createGraphics();
-        g.drawImage(src, 0, 0, null);
-        g.dispose();
-        return copy;
+    private TiledImage resampleTiled(TiledImage image, int rx1, int ry1, int rW, int rH)
+            throws IOException {
+        RotationSampler sampler = new RotationSampler(rW, rH, degrees, interpolation, 0xFF000000);
+        int t = image.getTileSize();
+        try (TiledImage region = copyOf(image, rx1, ry1, rW, rH);
+             PixelBuffer out = PixelBuffer.allocate(t, t)) {
+            int[] scratch = new int[0];
+            for (int by = ry1; by < ry1 + rH; by = (by / t + 1) * t) {
+                int bh = Math.min(ry1 + rH, (by / t + 1) * t) - by;
+                for (int bx = rx1; bx < rx1 + rW; bx = (bx / t + 1) * t) {
+                    int bw = Math.min(rx1 + rW, (bx / t + 1) * t) - bx;
+                    Rectangle f = sampler.footprint(bx - rx1, by - ry1, bw, bh);
+                    if (scratch.length < f.width * f.height) scratch = new int[f.width * f.height];
+                    if (!f.isEmpty()) region.readRegion(f.x, f.y, f.width, f.height, scratch, 0, f.width);
+                    PixelBuffer src = PixelBuffer.wrap(scratch, 0, f.width, f.height, f.width);
+                    for (int r = 0; r < bh; r++) {
+                        sampler.row(src, f.x, f.y, bx - rx1, by - ry1 + r, bw, out.data(), r * bw);
+                    }
+                    image.writeRegion(bx, by, bw, bh, out.data(), 0, bw);
+                }
+            }
+        }
+        return image;
+    }
+
+    /** @return a scratch TiledImage holding the pixels of (rx1, ry1, rW, rH) */
+    private static TiledImage copyOf(TiledImage image, int rx1, int ry1, int rW, int rH)
+            throws IOException {
+        TiledImage region = image.createCompatible(rW, rH);
+        int[] row = new int[rW];
+        for (int y = 0; y < rH; y++) {
+            image.readRegion(rx1, ry1 + y, rW, 1, row, 0, rW);
+            region.writeRegion(0, y, rW, 1, row, 0, rW);
+        }
+        return region;
+    }
+
+    /**
+     * Fills {@code dst} with the block of the clockwise-rotated grid
+     * starting at ({@code gx0}, {@code gy0}), reading just the matching
+     * source block into {@code scratch}.
+     */
+    private static void rotatedBlock(TiledImage src, int degrees, int gx0, int gy0,
+                                     int[] scratch, PixelBuffer dst) throws IOException {
+        int srcW = src.getWidth(), srcH = src.getHeight();
+        int bw = dst.width(), bh = dst.height();
+        // Source rectangle that rotates onto the block, as (x, y, w, h)
+        int sx, sy, sw, sh;
+        switch (degrees) {
+            case 90  -> { sx = gy0;             sy = srcH - gx0 - bw; sw = bh; sh = bw; }
+            case 180 -> { sx = srcW - gx0 - bw; sy = srcH - gy0 - bh; sw = bw; sh = bh; }
+            default  -> { sx = srcW - gy0 - bh; sy = gx0;             sw = bh; sh = bw; }
+        }
+        src.readRegion(sx, sy, sw, sh, scratch, 0, sw);
+        PixelBuffer.wrap(scratch, 0, sw, sh, sw).rotateInto(dst, degrees, 0, 0);
+    }
+
+    /** @return the region as given (normalised, not clamped) */
+    public Rectangle getRegion() {
+        return new Rectangle(x1, y1, x2 - x1, y2 - y1);
+    }
+
+    /** @return clockwise rotation angle, normalised to [0, 360) */
+    public double getDegrees() {
+        return degrees;
+    }
+
+    /** @return true for 0°, 90°, 180° and 270°, which move whole pixels exactly */
+    public boolean isRightAngle() {
+        return rightAngle >= 0;
+    }
+
+    /** @return sampling used when the angle is not a right angle */
+    public Interpolation getInterpolation() {
+        return interpolation;
+    }
+
+    /** The image keeps its size; pixels only move within the region. */
+    @Override
+    public Rectangle outputRegion(Rectangle input, int width, int height) {
+        return new Rectangle(input);
+    }
+
+    /**
+     * Output pixels inside the rotated region can come from anywhere in
+     * it, so an output rectangle touching the region needs all of it.
+     */
+    @Override
+    public Rectangle inputRegion(Rectangle output, int width, int height) {
+        Rectangle region = getRegion().intersection(new Rectangle(width, height));
+        if (region.isEmpty() || !region.intersects(output)) return new Rectangle(output);
+        return output.union(region);
+    }
+
+    /** Pixels are moved, resampled or blacked out only inside the region, clamped to the image. */
+    @Override
+    public Rectangle changedRegion(int width, int height) {
+        return getRegion().intersection(new Rectangle(width, height));
+    }
+
+    /**
+     * A half turn undoes itself, and on a square region a quarter turn is
+     * undone by three more; other rotations black out or resample pixels.
+     * Moved pixels come back exactly only for types that store ARGB exactly.
+     */
+    @Override
+    public ImageOperation inverse(int width, int height, int imageType) {
+        Rectangle r = changedRegion(width, height);
+        if (r.isEmpty() || (r.width == 1 && r.height == 1) || rightAngle == 0) {
+            return this;   // changes nothing
+        }
+        if (!RasterAccess.isExactArgb(imageType) || !isPermutation(width, height)) return null;
+        return rightAngle == 180 ? this : new RotateOperation(x1, y1, x2, y2, 360 - rightAngle);
+    }
+
+    /**
+     * Right-angle rotations of the same square region commute (they add
+     * up), as do two half turns of the same region; see {@link InvertOperation} for
+     * inversions.
+     */
+    @Override
+    public boolean commutesWith(ImageOperation other, int width, int height) {
+        if (other instanceof InvertOperation inv) return inv.commutesWith(this, width, height);
+        if (other instanceof RotateOperation rot && isRightAngle() && rot.isRightAngle()) {
+            Rectangle r = changedRegion(width, height);
+            boolean halfTurns = rightAngle == 180 && rot.rightAngle == 180;
+            if (r.equals(rot.changedRegion(width, height)) && (r.width == r.height || halfTurns)) {
+                return true;
+            }
+        }
+        return super.commutesWith(other, width, height);
+    }
+
+    /**
+     * @return true if this rotation only moves pixels within its region of a
+     *         width×height image (a right angle on a square region, or a
+     *         half turn), blacking out and resampling none
+     */
+    public boolean isPermutation(int width, int height) {
+        Rectangle r = changedRegion(width, height);
+        if (r.isEmpty() || rightAngle == 0) return true;
+        return rightAngle > 0 && (r.width == r.height || rightAngle == 180);
+    }
+
+    @Override
+    public RotateOperation restrictTo(Rectangle window, int width, int height) {
+        return translate(-window.x, -window.y);
+    }
+
+    /** @return the same rotation with its region shifted by (dx, dy) */
+    public RotateOperation translate(int dx, int dy) {
+        return new RotateOperation(x1 + dx, y1 + dy, x2 + dx, y2 + dy, degrees, interpolation);
+    }
+
+    @Override
+    public RotateOperation downscaled(int level) {
+        if (level == 0) return this;
+        return new RotateOperation(
+            ScalableOperation.scaleStart(x1, level), ScalableOperation.scaleStart(y1, level),
+            ScalableOperation.scaleEnd(x2, level),   ScalableOperation.scaleEnd(y2, level),
+            degrees, interpolation);
     }
 
     @Override
     public String toString() {
-        return String.format(
-            "RotateOperation  (%d,%d) → (%d,%d)  %d°", x1, y1, x2, y2, degrees);
+        if (isRightAngle()) {
+            return String.format(
+                "RotateOperation  (%d,%d) → (%d,%d)  %d°", x1, y1, x2, y2, rightAngle);
+        }
+        return String.format("RotateOperation  (%d,%d) → (%d,%d)  %s°  %s", x1, y1, x2, y2,
+                             degrees, interpolation.name().toLowerCase());
     }
 }
\ No newline at end of file
@@ -0,0 +1,212 @@
+package operations;
+
+import java.awt.Rectangle;
+
+/**
+ * RotationSampler.java
+ * --------------------
+ * Resamples a width×height region rotated clockwise about its centre by
+ * an arbitrary angle, one destination row at a time.
+ *
+ * The source position of the first pixel of a row comes from the
+ * rotation; every next pixel is one constant step further.  Positions are
+ * kept in 32.32 fixed point, so the inner loops have no trigonometry, no
+ * division and no floating point, and a row of any practical width drifts
+ * by far less than one 256th of a pixel.
+ *
+ * A destination pixel whose source position lies outside the region is
+ * black (the fill colour).  Inside it, taps that fall past the edge repeat
+ * the edge pixel, so the rotated content gets no dark fringe.  Pixels are
+ * packed (see {@link RasterAccess}) and each of their four bytes is
+ * interpolated on its own, whatever channel it holds.
+ *
+ * The source may be any part of the region (a {@link PixelBuffer} placed
+ * at srcX, srcY) as long as it covers the {@link #footprint} of the rows
+ * asked for.  A sampler is immutable, so threads can share one.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+final class RotationSampler {
+
+    private static final int FRAC = 32;
+    private static final long ONE = 1L << FRAC, HALF = ONE >> 1;
+
+    /** Catmull-Rom weights for 256 fractions, four per fraction, in 4096ths summing to 4096. */
+    private static final int[] CUBIC = cubicWeights();
+
+    private final int width, height;
+    private final RotateOperation.Interpolation interpolation;
+    private final int fill;
+    private final double cos, sin, cx, cy;
+    private final long stepX, stepY;
+
+    /**
+     * @param degrees clockwise angle
+     * @param fill    packed pixel for positions outside the region
+     */
+    RotationSampler(int width, int height, double degrees,
+                    RotateOperation.Interpolation interpolation, int fill) {
+        this.width = width;
+        this.height = height;
+        this.interpolation = interpolation;
+        this.fill = fill;
+        double theta = Math.toRadians(degrees);
+        this.cos = Math.cos(theta);
+        this.sin = Math.sin(theta);
+        this.cx = (width - 1) / 2.0;
+        this.cy = (height - 1) / 2.0;
+        this.stepX = fixed(cos);
+        this.stepY = fixed(-sin);
+    }
+
+    /**
+     * Resamples destination pixels (dx0, dy) … (dx0 + n - 1, dy) of the
+     * region into {@code out[off…]}.
+     *
+     * @param src  source pixels, covering the footprint of the row
+     * @param srcX x of {@code src} in the region
+     * @param srcY y of {@code src} in the region
+     */
+    void row(PixelBuffer src, int srcX, int srcY, int dx0, int dy, int n, int[] out, int off) {
+        // From the start of the row, so any split of a row gives the same pixels
+        double oy = dy - cy;
+        long sx = fixed(cx - cx * cos + oy * sin) + dx0 * stepX;
+        long sy = fixed(cy + cx * sin + oy * cos) + dx0 * stepY;
+        switch (interpolation) {
+            case NEAREST  -> nearest(src, srcX, srcY, sx, sy, n, out, off);
+            case BILINEAR -> bilinear(src, srcX, srcY, sx, sy, n, out, off);
+            case BICUBIC  -> bicubic(src, srcX, srcY, sx, sy, n, out, off);
+        }
+    }
+
+    /**
+     * @return the part of the region that destination rectangle (x, y, w, h)
+     *         reads, taps included (may be empty)
+     */
+    Rectangle footprint(int x, int y, int w, int h) {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int corner = 0; corner < 4; corner++) {
+            double ox = x + (corner & 1) * (w - 1) - cx, oy = y + (corner >> 1) * (h - 1) - cy;
+            double px = cx + ox * cos + oy * sin, py = cy - ox * sin + oy * cos;
+            minX = Math.min(minX, px);  maxX = Math.max(maxX, px);
+            minY = Math.min(minY, py);  maxY = Math.max(maxY, py);
+        }
+        // Bicubic reads one pixel before the sample and two after; one more for rounding
+        int x1 = (int) Math.floor(minX) - 2, x2 = (int) Math.ceil(maxX) + 3;
+        int y1 = (int) Math.floor(minY) - 2, y2 = (int) Math.ceil(maxY) + 3;
+        Rectangle f = new Rectangle(x1, y1, x2 - x1, y2 - y1).intersection(new Rectangle(width, height));
+        return f.isEmpty() ? new Rectangle() : f;
+    }
+
+    // ── Kernels ───────────────────────────────────────────────────────────
+
+    private void nearest(PixelBuffer src, int srcX, int srcY, long sx, long sy,
+                         int n, int[] out, int off) {
+        int[] data = src.data();
+        int stride = src.stride(), base = src.offset() - srcY * stride - srcX;
+        long maxX = ((long) width << FRAC) - HALF, maxY = ((long) height << FRAC) - HALF;
+        for (int i = 0; i < n; i++, sx += stepX, sy += stepY) {
+            if (sx < -HALF || sx >= maxX || sy < -HALF || sy >= maxY) {
+                out[off + i] = fill;
+                continue;
+            }
+            int ix = (int) ((sx + HALF) >> FRAC), iy = (int) ((sy + HALF) >> FRAC);
+            out[off + i] = data[base + iy * stride + ix];
+        }
+    }
+
+    private void bilinear(PixelBuffer src, int srcX, int srcY, long sx, long sy,
+                          int n, int[] out, int off) {
+        int[] data = src.data();
+        int stride = src.stride(), offset = src.offset();
+        int lastX = src.width() - 1, lastY = src.height() - 1;
+        long maxX = ((long) width << FRAC) - HALF, maxY = ((long) height << FRAC) - HALF;
+        for (int i = 0; i < n; i++, sx += stepX, sy += stepY) {
+            if (sx < -HALF || sx >= maxX || sy < -HALF || sy >= maxY) {
+                out[off + i] = fill;
+                continue;
+            }
+            int ix = (int) (sx >> FRAC) - srcX, iy = (int) (sy >> FRAC) - srcY;
+            int fx = (int) (sx >>> (FRAC - 8)) & 0xFF, fy = (int) (sy >>> (FRAC - 8)) & 0xFF;
+            int x0 = clamp(ix, lastX), x1 = clamp(ix + 1, lastX);
+            int r0 = offset + clamp(iy, lastY) * stride, r1 = offset + clamp(iy + 1, lastY) * stride;
+            out[off + i] = lerp(lerp(data[r0 + x0], data[r0 + x1], fx),
+                                lerp(data[r1 + x0], data[r1 + x1], fx), fy);
+        }
+    }
+
+    private void bicubic(PixelBuffer src, int srcX, int srcY, long sx, long sy,
+                         int n, int[] out, int off) {
+        int[] data = src.data();
+        int stride = src.stride(), offset = src.offset();
+        int lastX = src.width() - 1, lastY = src.height() - 1;
+        long maxX = ((long) width << FRAC) - HALF, maxY = ((long) height << FRAC) - HALF;
+        for (int i = 0; i < n; i++, sx += stepX, sy += stepY) {
+            if (sx < -HALF || sx >= maxX || sy < -HALF || sy >= maxY) {
+                out[off + i] = fill;
+                continue;
+            }
+            int ix = (int) (sx >> FRAC) - srcX, iy = (int) (sy >> FRAC) - srcY;
+            int wx = ((int) (sx >>> (FRAC - 8)) & 0xFF) * 4, wy = ((int) (sy >>> (FRAC - 8)) & 0xFF) * 4;
+            int c0 = clamp(ix - 1, lastX), c1 = clamp(ix, lastX);
+            int c2 = clamp(ix + 1, lastX), c3 = clamp(ix + 2, lastX);
+            int w0 = CUBIC[wx], w1 = CUBIC[wx + 1], w2 = CUBIC[wx + 2], w3 = CUBIC[wx + 3];
+            long b0 = 0, b1 = 0, b2 = 0, b3 = 0;
+            for (int j = 0; j < 4; j++) {
+                int row = offset + clamp(iy - 1 + j, lastY) * stride;
+                int p0 = data[row + c0], p1 = data[row + c1], p2 = data[row + c2], p3 = data[row + c3];
+                long wj = CUBIC[wy + j];
+                // Horizontal pass, one sum per byte, then weighted into the vertical pass
+                b0 += wj * (w0 * (p0 & 0xFF) + w1 * (p1 & 0xFF) + w2 * (p2 & 0xFF) + w3 * (p3 & 0xFF));
+                b1 += wj * (w0 * (p0 >>> 8 & 0xFF) + w1 * (p1 >>> 8 & 0xFF)
+                          + w2 * (p2 >>> 8 & 0xFF) + w3 * (p3 >>> 8 & 0xFF));
+                b2 += wj * (w0 * (p0 >>> 16 & 0xFF) + w1 * (p1 >>> 16 & 0xFF)
+                          + w2 * (p2 >>> 16 & 0xFF) + w3 * (p3 >>> 16 & 0xFF));
+                b3 += wj * (w0 * (p0 >>> 24) + w1 * (p1 >>> 24) + w2 * (p2 >>> 24) + w3 * (p3 >>> 24));
+            }
+            out[off + i] = toByte(b0) | toByte(b1) << 8 | toByte(b2) << 16 | toByte(b3) << 24;
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private static long fixed(double v) {
+        return Math.round(v * ONE);
+    }
+
+    /** @return a bicubic sum in 1/2^24ths, rounded and clamped to 0…255 */
+    private static int toByte(long sum) {
+        int v = (int) ((sum + (1L << 23)) >> 24);
+        return v < 0 ? 0 : Math.min(v, 255);
+    }
+
+    private static int clamp(int v, int last) {
+        return v < 0 ? 0 : Math.min(v, last);
+    }
+
+    /** Blends every byte of p towards q by f/256, two bytes per multiply. */
+    private static int lerp(int p, int q, int f) {
+        int g = 256 - f;
+        int rb = (((p & 0x00FF00FF) * g + (q & 0x00FF00FF) * f + 0x00800080) >>> 8) & 0x00FF00FF;
+        int ag = ((p >>> 8 & 0x00FF00FF) * g + (q >>> 8 & 0x00FF00FF) * f + 0x00800080) & 0xFF00FF00;
+        return rb | ag;
+    }
+
+    private static int[] cubicWeights() {
+        int[] table = new int[256 * 4];
+        for (int f = 0; f < 256; f++) {
+            double t = f / 256.0, t2 = t * t, t3 = t2 * t;
+            double[] w = {
+                (-t3 + 2 * t2 - t) / 2,
+                (3 * t3 - 5 * t2 + 2) / 2,
+                (-3 * t3 + 4 * t2 + t) / 2,
+                (t3 - t2) / 2 };
+            int sum = 0;
+            for (int k = 0; k < 4; k++) sum += table[f * 4 + k] = (int) Math.round(w[k] * 4096);
+            table[f * 4 + (t < 0.5 ? 1 : 2)] += 4096 - sum;   // rounding error onto the nearest tap
+        }
+        return table;
+    }
+}
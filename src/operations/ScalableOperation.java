@@ -0,0 +1,41 @@
+package operations;
+
+/**
+ * ScalableOperation.java
+ * ----------------------
+ * Opt-in capability for operations whose effect on a downsampled copy of
+ * an image can be reproduced by the same operation with scaled
+ * coordinates.
+ *
+ * The GUI previews a pipeline on a mip level of the source (half size per
+ * level) and only renders full resolution on save.  Every operation in the
+ * pipeline must implement this interface for that to work; otherwise the
+ * preview falls back to full resolution.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public interface ScalableOperation {
+
+    /**
+     * Returns the equivalent operation for an image {@code 2^level} times
+     * smaller in each dimension.
+     *
+     * @param level mip level, 0 = full resolution
+     * @return this operation with rescaled coordinates ({@code this} for level 0)
+     */
+    ImageOperation downscaled(int level);
+
+    /** @return a region start coordinate at {@code level}, rounded down */
+    static int scaleStart(int v, int level) {
+        return v >> level;
+    }
+
+    /**
+     * @return a region end coordinate at {@code level}, rounded up so small
+     *         regions stay visible in the preview
+     */
+    static int scaleEnd(int v, int level) {
+        return -((-v) >> level);
+    }
+}
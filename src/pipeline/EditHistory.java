@@ -0,0 +1,339 @@
+package pipeline;
+
+import operations.CropOperation;
+import operations.ImageOperation;
+import operations.InPlaceOperation;
+import operations.RasterAccess;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * EditHistory.java
+ * ----------------
+ * Step-wise undo and redo over a working image that operations are
+ * applied to directly.
+ *
+ * A step whose operation has an exact inverse
+ * ({@link ImageOperation#inverse}: an inversion, a half turn, a quarter
+ * turn of a square region) saves nothing and is undone by running the
+ * inverse.  Instead of a full snapshot, any other step keeps only the
+ * pixels its operation overwrote, as they were before it ran:
+ *
+ *   - operations that keep the size ({@link operations.InvertOperation},
+ *     {@link operations.RotateOperation}) report the rectangle they
+ *     touch through {@link ImageOperation#changedRegion}; its old pixels
+ *     are saved;
+ *   - a {@link CropOperation} saves the border it discards;
+ *   - any other operation saves the whole image it replaced.
+ *
+ * Saved pixels are Deflate-compressed row by row as they are read, so a
+ * step costs time and memory in proportion to its region, not to the
+ * image.  Undo writes them back; redo runs the operation again, which is
+ * just as cheap, and keeps the saved pixels, since the image is then
+ * exactly as it was when they were taken.
+ *
+ * Once the saved pixels exceed the byte budget the oldest steps are
+ * forgotten (the newest one is always kept), so the history may end
+ * before the first operation.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class EditHistory {
+
+    private final long budgetBytes;
+    private BufferedImage image;
+
+    private final Deque<Step> undo = new ArrayDeque<>();   // most recent first
+    private final Deque<Step> redo = new ArrayDeque<>();
+    private final List<ImageOperation> applied = new ArrayList<>();
+    private long retainedBytes;
+
+    /**
+     * One applied operation and what it takes to go back before it: its
+     * {@code inverse}, or else the saved pixels {@code before}.
+     */
+    private record Step(ImageOperation op, ImageOperation inverse,
+                        int width, int height, Rectangle kept, Patch before) {
+
+        /**
+         * Rebuilds the image this step started from.  {@code kept} is where
+         * {@code after} lies in it (the whole image for size-keeping
+         * operations, the crop rectangle for crops), or null if nothing of
+         * {@code after} survives and {@code before} covers everything.
+         */
+        BufferedImage restore(BufferedImage after) {
+            if (inverse != null) return run(inverse, after);
+            BufferedImage result = after;
+            if (kept == null || after.getWidth() != width || after.getHeight() != height) {
+                result = RasterAccess.createCompatible(after, width, height);
+                if (kept != null) paste(after, result, kept.x, kept.y);
+            }
+            before.restore(result);
+            return result;
+        }
+    }
+
+    /**
+     * @param start       the image before any operation; the history takes
+     *                    ownership and modifies it
+     * @param budgetBytes maximum size of the saved pixels of all steps
+     */
+    public EditHistory(BufferedImage start, long budgetBytes) {
+        if (start == null) throw new IllegalArgumentException("start image must not be null");
+        if (budgetBytes < 0) throw new IllegalArgumentException("budgetBytes must not be negative");
+        this.image = start;
+        this.budgetBytes = budgetBytes;
+    }
+
+    // ── Editing ───────────────────────────────────────────────────────────
+
+    /**
+     * Applies {@code op} to the working image and records it.  Anything
+     * that could be redone is discarded.
+     *
+     * @throws IllegalArgumentException if the operation does not fit the
+     *                                  image; nothing is recorded then
+     */
+    public synchronized void apply(ImageOperation op) {
+        int w = image.getWidth(), h = image.getHeight();
+        Rectangle whole = new Rectangle(w, h);
+        Rectangle changed = op.changedRegion(w, h);
+
+        ImageOperation inverse = op.inverse(w, h, image.getType());
+
+        Step step;
+        if (inverse != null) {
+            step = new Step(op, inverse, w, h, whole, Patch.NONE);
+        } else if (changed != null) {
+            step = new Step(op, null, w, h, whole, Patch.capture(image, List.of(changed)));
+        } else if (op instanceof CropOperation crop) {
+            Rectangle kept = crop.getRegion().intersection(whole);
+            step = new Step(op, null, w, h, kept, Patch.capture(image, border(kept, w, h)));
+        } else {
+            step = new Step(op, null, w, h, null, Patch.capture(image, List.of(whole)));
+        }
+        image = run(op, image);
+
+        redo.forEach(s -> retainedBytes -= s.before().bytes());
+        redo.clear();
+        push(step);
+    }
+
+    /**
+     * Undoes the most recent step.
+     *
+     * @return the operation undone, or null if there is no step left
+     */
+    public synchronized ImageOperation undo() {
+        Step step = undo.pollFirst();
+        if (step == null) return null;
+        image = step.restore(image);
+        applied.remove(applied.size() - 1);
+        redo.addFirst(step);
+        return step.op();
+    }
+
+    /**
+     * Re-applies the most recently undone step.
+     *
+     * @return the operation redone, or null if nothing was undone
+     */
+    public synchronized ImageOperation redo() {
+        Step step = redo.pollFirst();
+        if (step == null) return null;
+        image = run(step.op(), image);
+        applied.add(step.op());
+        undo.addFirst(step);
+        return step.op();
+    }
+
+    public synchronized boolean canUndo() { return !undo.isEmpty(); }
+
+    public synchronized boolean canRedo() { return !redo.isEmpty(); }
+
+    /**
+     * @return the working image with every applied operation; owned by the
+     *         history, so it must not be modified, and it may change on the
+     *         next call
+     */
+    public synchronized BufferedImage image() { return image; }
+
+    /** @return the operations applied so far, in order, including any forgotten steps */
+    public synchronized Pipeline pipeline() { return Pipeline.of(applied); }
+
+    /** @return steps that can be undone */
+    public synchronized int undoDepth() { return undo.size(); }
+
+    /** @return steps that can be redone */
+    public synchronized int redoDepth() { return redo.size(); }
+
+    /** @return compressed size of the pixels saved by all undo and redo steps */
+    public synchronized long getRetainedBytes() { return retainedBytes; }
+
+    public long getBudgetBytes() { return budgetBytes; }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("EditHistory[%d undo, %d redo, %,d bytes retained]",
+                             undo.size(), redo.size(), retainedBytes);
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    private void push(Step step) {
+        undo.addFirst(step);
+        applied.add(step.op());
+        retainedBytes += step.before().bytes();
+        while (retainedBytes > budgetBytes && undo.size() > 1) {
+            retainedBytes -= undo.removeLast().before().bytes();
+        }
+    }
+
+    /** Runs {@code op} on {@code image}, in place when the operation allows it. */
+    private static BufferedImage run(ImageOperation op, BufferedImage image) {
+        if (op instanceof InPlaceOperation inPlace) {
+            inPlace.applyInPlace(image);
+            return image;
+        }
+        return op.apply(image);
+    }
+
+    /** The parts of a width×height image outside {@code kept}: top, bottom, left, right. */
+    private static List<Rectangle> border(Rectangle kept, int width, int height) {
+        if (kept.isEmpty()) return List.of(new Rectangle(width, height));
+        int bottom = kept.y + kept.height, right = kept.x + kept.width;
+        return List.of(
+            new Rectangle(0, 0, width, kept.y),
+            new Rectangle(0, bottom, width, height - bottom),
+            new Rectangle(0, kept.y, kept.x, kept.height),
+            new Rectangle(right, kept.y, width - right, kept.height));
+    }
+
+    /** Copies all of {@code src} into {@code dst} at (x, y), losslessly. */
+    private static void paste(BufferedImage src, BufferedImage dst, int x, int y) {
+        int w = src.getWidth(), h = src.getHeight();
+        if (!RasterAccess.isDirect(src)) {
+            dst.getRaster().setDataElements(x, y, src.getRaster());
+            return;
+        }
+        int[] row = new int[w];
+        for (int r = 0; r < h; r++) {
+            RasterAccess.readPacked(src, 0, r, w, 1, row, 0, w);
+            RasterAccess.writePacked(dst, x, y + r, w, 1, row, 0, w);
+        }
+    }
+
+    // ── Saved pixels ──────────────────────────────────────────────────────
+
+    /**
+     * The pixels of some rectangles of an image.  Direct rasters are stored
+     * as packed pixels (see {@link RasterAccess#readPacked}) in one Deflate
+     * stream; other layouts as uncompressed raster copies, the only lossless
+     * form that works for every type.
+     */
+    private static final class Patch {
+
+        /** No pixels. */
+        static final Patch NONE = new Patch(List.of(), null, List.of(), 0);
+
+        private final List<Rectangle> rects;
+        private final byte[] deflated;
+        private final List<Raster> rasters;
+        private final long bytes;
+
+        private Patch(List<Rectangle> rects, byte[] deflated, List<Raster> rasters, long bytes) {
+            this.rects = rects;
+            this.deflated = deflated;
+            this.rasters = rasters;
+            this.bytes = bytes;
+        }
+
+        long bytes() { return bytes; }
+
+        static Patch capture(BufferedImage image, List<Rectangle> regions) {
+            List<Rectangle> rects = new ArrayList<>();
+            for (Rectangle r : regions) {
+                Rectangle c = r.intersection(new Rectangle(image.getWidth(), image.getHeight()));
+                if (!c.isEmpty()) rects.add(c);
+            }
+
+            if (!RasterAccess.isDirect(image)) {
+                List<Raster> rasters = new ArrayList<>(rects.size());
+                long bytes = 0;
+                for (Rectangle r : rects) {
+                    Raster copy = image.getData(r);
+                    rasters.add(copy);
+                    bytes += (long) copy.getDataBuffer().getSize()
+                           * DataBuffer.getDataTypeSize(copy.getTransferType()) / 8;
+                }
+                return new Patch(rects, null, rasters, bytes);
+            }
+
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[1 << 16];
+            try {
+                for (Rectangle r : rects) {
+                    int[] row = new int[r.width];
+                    ByteBuffer rowBytes = ByteBuffer.allocate(4 * r.width);
+                    for (int y = r.y; y < r.y + r.height; y++) {
+                        RasterAccess.readPacked(image, r.x, y, r.width, 1, row, 0, r.width);
+                        rowBytes.asIntBuffer().put(row);
+                        deflater.setInput(rowBytes.array());
+                        while (!deflater.needsInput()) out.write(chunk, 0, deflater.deflate(chunk));
+                    }
+                }
+                deflater.finish();
+                while (!deflater.finished()) out.write(chunk, 0, deflater.deflate(chunk));
+            } finally {
+                deflater.end();
+            }
+            byte[] deflated = out.toByteArray();
+            return new Patch(rects, deflated, null, deflated.length);
+        }
+
+        /** Writes the saved pixels back into {@code image} at their old places. */
+        void restore(BufferedImage image) {
+            if (rasters != null) {
+                for (Raster r : rasters) image.getRaster().setRect(r);
+                return;
+            }
+            Inflater inflater = new Inflater();
+            inflater.setInput(deflated);
+            try {
+                for (Rectangle r : rects) {
+                    int[] row = new int[r.width];
+                    byte[] rowBytes = new byte[4 * r.width];
+                    for (int y = r.y; y < r.y + r.height; y++) {
+                        for (int n = 0; n < rowBytes.length; ) {
+                            int got = inflater.inflate(rowBytes, n, rowBytes.length - n);
+                            if (got == 0 && (inflater.finished() || inflater.needsInput())) {
+                                throw new IllegalStateException("Saved pixels are truncated");
+                            }
+                            n += got;
+                        }
+                        ByteBuffer.wrap(rowBytes).asIntBuffer().get(row);
+                        RasterAccess.writePacked(image, r.x, y, r.width, 1, row, 0, r.width);
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Saved pixels are corrupt", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package pipeline;
+
+import operations.ParallelTiles;
+import operations.RasterAccess;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MipPyramid.java
+ * ---------------
+ * Successively halved copies of a source image, used as cheap proxies for
+ * previews.  Level 0 is the source itself; level k is about
+ * {@code 2^k} times smaller in each dimension (odd sizes round up).
+ *
+ * Levels are built on demand, each from the previous one with a 2×2 box
+ * filter, and kept for the lifetime of the pyramid.  Building level 1
+ * reads the source once; every further level costs a quarter of the one
+ * before it.  Levels above 0 are TYPE_INT_ARGB when the source has alpha
+ * and TYPE_INT_RGB otherwise.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class MipPyramid {
+
+    private final BufferedImage source;
+    private final List<BufferedImage> levels = new ArrayList<>();
+
+    /** @param source level 0; shared, not copied, and must not be modified */
+    public MipPyramid(BufferedImage source) {
+        this.source = source;
+        levels.add(source);
+    }
+
+    /** @return the last level, where both dimensions fit in one pixel */
+    public int maxLevel() {
+        int level = 0;
+        for (int w = source.getWidth(), h = source.getHeight(); w > 1 || h > 1; level++) {
+            w = (w + 1) / 2;
+            h = (h + 1) / 2;
+        }
+        return level;
+    }
+
+    /**
+     * Returns mip level {@code level}, building any missing levels first.
+     * The returned image is shared and must not be modified.
+     *
+     * @throws IllegalArgumentException if level is negative or above {@link #maxLevel()}
+     */
+    public synchronized BufferedImage level(int level) {
+        if (level < 0 || level > maxLevel()) {
+            throw new IllegalArgumentException("No mip level " + level);
+        }
+        while (levels.size() <= level) {
+            levels.add(halve(levels.get(levels.size() - 1)));
+        }
+        return levels.get(level);
+    }
+
+    /**
+     * Chooses the smallest level that still has at least as many pixels as
+     * the image occupies when scaled to fit a {@code viewW}×{@code viewH}
+     * viewport, so the proxy never looks softer than the full image would.
+     *
+     * @return the level to render at (0 if the viewport is not smaller)
+     */
+    public static int levelFor(int width, int height, int viewW, int viewH) {
+        if (viewW <= 0 || viewH <= 0) return 0;
+        double ratio = Math.max((double) width / viewW, (double) height / viewH);
+        int level = 0;
+        while (ratio >= 2) {
+            ratio /= 2;
+            level++;
+        }
+        return level;
+    }
+
+    // ── Downsampling ──────────────────────────────────────────────────────
+
+    /** @return {@code src} at half size, each pixel the mean of a 2×2 block */
+    static BufferedImage halve(BufferedImage src) {
+        int srcW = src.getWidth(), srcH = src.getHeight();
+        int w = (srcW + 1) / 2, h = (srcH + 1) / 2;
+        boolean alpha = src.getColorModel().hasAlpha();
+        BufferedImage dst = new BufferedImage(w, h,
+            alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        int[] out = RasterAccess.ints(dst);
+
+        ParallelTiles.forEachBand(0, h, w, (from, to) -> {
+            int[] top = new int[srcW], bottom = new int[srcW];
+            for (int y = from; y < to; y++) {
+                argbRow(src, 2 * y, top);
+                // An odd last row is averaged with itself
+                argbRow(src, Math.min(2 * y + 1, srcH - 1), bottom);
+                int o = y * w;
+                for (int x = 0; x < w; x++) {
+                    int x0 = 2 * x, x1 = Math.min(x0 + 1, srcW - 1);
+                    out[o + x] = average(top[x0], top[x1], bottom[x0], bottom[x1]);
+                }
+            }
+        });
+        return dst;
+    }
+
+    /** Reads row {@code y} of {@code src} as non-premultiplied ARGB. */
+    private static void argbRow(BufferedImage src, int y, int[] row) {
+        int w = row.length;
+        if (RasterAccess.isDirect(src)) {
+            switch (src.getType()) {
+                case BufferedImage.TYPE_INT_ARGB -> {
+                    System.arraycopy(RasterAccess.ints(src), y * w, row, 0, w);
+                    return;
+                }
+                case BufferedImage.TYPE_INT_RGB -> {
+                    int[] data = RasterAccess.ints(src);
+                    for (int x = 0, i = y * w; x < w; x++, i++) row[x] = 0xFF000000 | data[i];
+                    return;
+                }
+                case BufferedImage.TYPE_3BYTE_BGR -> {
+                    byte[] data = RasterAccess.bytes(src);
+                    for (int x = 0, i = y * w * 3; x < w; x++, i += 3) {
+                        row[x] = 0xFF000000 | (data[i + 2] & 0xFF) << 16
+                               | (data[i + 1] & 0xFF) << 8 | (data[i] & 0xFF);
+                    }
+                    return;
+                }
+                default -> { }
+            }
+        }
+        src.getRGB(0, y, w, 1, row, 0, w);
+    }
+
+    private static int average(int a, int b, int c, int d) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int sum = (a >>> shift & 0xFF) + (b >>> shift & 0xFF)
+                    + (c >>> shift & 0xFF) + (d >>> shift & 0xFF);
+            result |= ((sum + 2) >> 2) << shift;
+        }
+        return result;
+    }
+}
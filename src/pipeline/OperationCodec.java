@@ -0,0 +1,52 @@
+package pipeline;
+
+import operations.ImageOperation;
+
+/**
+ * OperationCodec.java
+ * -------------------
+ * Reads and writes one kind of operation in the pipeline formats.
+ *
+ * A codec only deals with the operation's arguments, through
+ * {@link Writer}/{@link Reader}; the same code then serves the text form
+ * ({@code rotate 0 0 50 50 90}) and the binary form.  New operations
+ * become serializable by registering a codec with
+ * {@link OperationRegistry#register}.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public interface OperationCodec<T extends ImageOperation> {
+
+    /** @return keyword used in the text format, e.g. "crop" (lower case) */
+    String name();
+
+    /** @return the operation class this codec handles */
+    Class<T> type();
+
+    /** Writes the arguments of {@code op}. */
+    void encode(T op, Writer out);
+
+    /**
+     * Reads the arguments written by {@link #encode} and builds the operation.
+     *
+     * @throws IllegalArgumentException if the arguments are missing or invalid
+     */
+    T decode(Reader in);
+
+    /** Argument sink. */
+    interface Writer {
+        void writeInt(int value);
+        void writeDouble(double value);
+        void writeWord(String value);
+    }
+
+    /** Argument source; reading past the last argument throws. */
+    interface Reader {
+        int readInt();
+        double readDouble();
+        String readWord();
+        /** @return true if more arguments follow (for optional trailing ones) */
+        boolean hasMore();
+    }
+}
@@ -0,0 +1,118 @@
+package pipeline;
+
+import operations.CropOperation;
+import operations.ImageOperation;
+import operations.InvertOperation;
+import operations.RotateOperation;
+
+import java.awt.Rectangle;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * OperationRegistry.java
+ * ----------------------
+ * Maps operation names and classes to their {@link OperationCodec}.
+ * Crop, invert and rotate are registered up front; other operations can
+ * be added at start-up with {@link #register}.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class OperationRegistry {
+
+    private static final Map<String, OperationCodec<?>> BY_NAME = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, OperationCodec<?>> BY_TYPE = new ConcurrentHashMap<>();
+
+    static {
+        register(new OperationCodec<CropOperation>() {
+            @Override public String name() { return "crop"; }
+            @Override public Class<CropOperation> type() { return CropOperation.class; }
+            @Override public void encode(CropOperation op, Writer out) { writeRegion(op.getRegion(), out); }
+            @Override public CropOperation decode(Reader in) {
+                return new CropOperation(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            }
+        });
+        register(new OperationCodec<InvertOperation>() {
+            @Override public String name() { return "invert"; }
+            @Override public Class<InvertOperation> type() { return InvertOperation.class; }
+            @Override public void encode(InvertOperation op, Writer out) { writeRegion(op.getRegion(), out); }
+            @Override public InvertOperation decode(Reader in) {
+                return new InvertOperation(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            }
+        });
+        register(new OperationCodec<RotateOperation>() {
+            @Override public String name() { return "rotate"; }
+            @Override public Class<RotateOperation> type() { return RotateOperation.class; }
+            // rotate x1 y1 x2 y2 degrees [interpolation]: only angles that
+            // resample name their interpolation; bilinear if left out
+            @Override public void encode(RotateOperation op, Writer out) {
+                writeRegion(op.getRegion(), out);
+                out.writeDouble(op.getDegrees());
+                if (!op.isRightAngle()) out.writeWord(op.getInterpolation().name().toLowerCase());
+            }
+            @Override public RotateOperation decode(Reader in) {
+                int x1 = in.readInt(), y1 = in.readInt(), x2 = in.readInt(), y2 = in.readInt();
+                double degrees = in.readDouble();
+                RotateOperation.Interpolation interpolation = in.hasMore()
+                    ? interpolation(in.readWord()) : RotateOperation.Interpolation.BILINEAR;
+                return new RotateOperation(x1, y1, x2, y2, degrees, interpolation);
+            }
+        });
+    }
+
+    private OperationRegistry() { }
+
+    /**
+     * Registers a codec, replacing any codec with the same name.
+     *
+     * @param codec codec to add
+     */
+    public static void register(OperationCodec<?> codec) {
+        BY_NAME.put(codec.name(), codec);
+        BY_TYPE.put(codec.type(), codec);
+    }
+
+    /**
+     * @return the codec for a text keyword
+     * @throws IllegalArgumentException if no codec has that name
+     */
+    public static OperationCodec<?> byName(String name) {
+        OperationCodec<?> codec = BY_NAME.get(name);
+        if (codec == null) throw new IllegalArgumentException("Unknown operation: " + name);
+        return codec;
+    }
+
+    /** @return true if the operation's class has a codec, so pipelines holding it can be written */
+    public static boolean hasCodec(ImageOperation op) {
+        return BY_TYPE.containsKey(op.getClass());
+    }
+
+    /**
+     * @return the codec for an operation instance
+     * @throws IllegalArgumentException if the operation's class is not registered
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends ImageOperation> OperationCodec<T> forOperation(T op) {
+        OperationCodec<?> codec = BY_TYPE.get(op.getClass());
+        if (codec == null) {
+            throw new IllegalArgumentException(
+                "No codec registered for " + op.getClass().getSimpleName());
+        }
+        return (OperationCodec<T>) codec;
+    }
+
+    private static void writeRegion(Rectangle r, OperationCodec.Writer out) {
+        out.writeInt(r.x);
+        out.writeInt(r.y);
+        out.writeInt(r.x + r.width);
+        out.writeInt(r.y + r.height);
+    }
+
+    private static RotateOperation.Interpolation interpolation(String word) {
+        for (RotateOperation.Interpolation i : RotateOperation.Interpolation.values()) {
+            if (i.name().equalsIgnoreCase(word)) return i;
+        }
+        throw new IllegalArgumentException("Unknown interpolation: " + word);
+    }
+}
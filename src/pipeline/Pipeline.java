@@ -0,0 +1,419 @@
+package pipeline;
+
+import operations.ImageOperation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pipeline.java
+ * -------------
+ * An immutable list of operations that can be stored and reloaded, so one
+ * pipeline definition can be applied to many images.  Operations are
+ * immutable too, so a Pipeline can be shared freely between threads.
+ *
+ * Text format: one step per line (or separated by ';'), '#' starts a
+ * comment, each step is a keyword followed by its arguments:
+ *
+ *   crop   x1 y1 x2 y2
+ *   invert x1 y1 x2 y2
+ *   rotate x1 y1 x2 y2 degrees [interpolation]
+ *
+ * Rotations by other than right angles name their interpolation
+ * (nearest, bilinear or bicubic), e.g. {@code rotate 0 0 800 600 0.35 bicubic}.
+ *
+ * Binary format (all integers are unsigned LEB128 varints unless noted):
+ *
+ *   "IPL" 0x02                       magic and version
+ *   nameCount, names…                 keywords as length-prefixed UTF-8
+ *   opCount
+ *   opCount × { nameIndex, argLength, args }
+ *
+ * where args are zig-zag varints (ints), 8-byte big-endian doubles, or
+ * length-prefixed UTF-8 words, as written by each operation's codec.
+ * Version 1 stored a rotation's angle as an int; such files still load,
+ * each double argument read back from its varint.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class Pipeline {
+
+    private static final byte[] MAGIC = { 'I', 'P', 'L', 2 };
+
+    /** Version 1: doubles were written as ints (zig-zag varints). */
+    private static final int INT_DOUBLES_VERSION = 1;
+
+    /** The empty pipeline. */
+    public static final Pipeline EMPTY = new Pipeline(List.of());
+
+    private final List<ImageOperation> operations;
+
+    private Pipeline(List<ImageOperation> operations) {
+        this.operations = operations;
+    }
+
+    /** @return a pipeline holding a snapshot of {@code operations} */
+    public static Pipeline of(List<? extends ImageOperation> operations) {
+        return new Pipeline(List.copyOf(operations));
+    }
+
+    /** @return the operations in execution order (unmodifiable) */
+    public List<ImageOperation> operations() { return operations; }
+
+    public int size() { return operations.size(); }
+
+    public boolean isEmpty() { return operations.isEmpty(); }
+
+    /** @return a new pipeline with {@code operation} appended; this one is unchanged */
+    public Pipeline append(ImageOperation operation) {
+        if (operation == null) throw new IllegalArgumentException("operation must not be null");
+        List<ImageOperation> ops = new ArrayList<>(operations);
+        ops.add(operation);
+        return new Pipeline(List.copyOf(ops));
+    }
+
+    /** @return a new pipeline without the last operation (this one if empty) */
+    public Pipeline withoutLast() {
+        return isEmpty() ? this : new Pipeline(operations.subList(0, operations.size() - 1));
+    }
+
+    // ── Files ─────────────────────────────────────────────────────────────
+
+    /**
+     * Reads a pipeline file in either format (binary is recognised by its
+     * magic bytes).
+     *
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the content is malformed
+     */
+    public static Pipeline load(Path path) throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        return isBinary(data) ? fromBytes(data)
+                              : parse(new String(data, StandardCharsets.UTF_8));
+    }
+
+    /** Writes the pipeline, as binary if the file name ends in ".ipl", else as text. */
+    public void save(Path path) throws IOException {
+        if (path.toString().toLowerCase().endsWith(".ipl")) {
+            Files.write(path, toBytes());
+        } else {
+            Files.writeString(path, toText());
+        }
+    }
+
+    // ── Text format ───────────────────────────────────────────────────────
+
+    /**
+     * Parses the text format.
+     *
+     * @throws IllegalArgumentException if a step is malformed
+     */
+    public static Pipeline parse(String text) {
+        TextReader in = new TextReader(text);
+        List<ImageOperation> ops = new ArrayList<>();
+        while (in.nextStep()) {
+            try {
+                OperationCodec<?> codec = OperationRegistry.byName(in.readWord());
+                ImageOperation op = codec.decode(in);
+                in.endStep(codec.name());
+                ops.add(op);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                    "Step " + (ops.size() + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return new Pipeline(List.copyOf(ops));
+    }
+
+    /** @return the text form, one step per line */
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        TextWriter out = new TextWriter(sb);
+        for (ImageOperation op : operations) {
+            OperationCodec<ImageOperation> codec = OperationRegistry.forOperation(op);
+            sb.append(codec.name());
+            codec.encode(op, out);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** Single pass over the characters; no regex, no intermediate strings but tokens. */
+    private static final class TextReader implements OperationCodec.Reader {
+        private final String s;
+        private int pos;
+
+        TextReader(String s) { this.s = s; }
+
+        /** Skips blanks, separators and comments; @return true if a step starts here */
+        boolean nextStep() {
+            while (pos < s.length()) {
+                char c = s.charAt(pos);
+                if (c == '#') {
+                    while (pos < s.length() && s.charAt(pos) != '\n') pos++;
+                } else if (Character.isWhitespace(c) || c == ';') {
+                    pos++;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void endStep(String name) {
+            if (hasMore()) {
+                throw new IllegalArgumentException(
+                    "Too many arguments for '" + name + "': " + token());
+            }
+        }
+
+        @Override
+        public boolean hasMore() {
+            skipInlineBlanks();
+            return pos < s.length() && !isStepEnd(s.charAt(pos));
+        }
+
+        @Override
+        public String readWord() {
+            if (!hasMore()) throw new IllegalArgumentException("Missing argument");
+            return token().toLowerCase();
+        }
+
+        @Override
+        public int readInt() {
+            if (!hasMore()) throw new IllegalArgumentException("Missing argument");
+            int start = pos;
+            long value = 0;
+            boolean negative = s.charAt(pos) == '-';
+            if (negative || s.charAt(pos) == '+') pos++;
+            int digits = pos;
+            while (pos < s.length() && s.charAt(pos) >= '0' && s.charAt(pos) <= '9'
+                   && value <= Integer.MAX_VALUE) {
+                value = value * 10 + (s.charAt(pos++) - '0');
+            }
+            if (negative) value = -value;
+            if (pos == digits || (pos < s.length() && !isDelimiter(s.charAt(pos)))
+                    || value != (int) value) {
+                pos = start;
+                throw new IllegalArgumentException("Not a whole number: " + token());
+            }
+            return (int) value;
+        }
+
+        @Override
+        public double readDouble() {
+            if (!hasMore()) throw new IllegalArgumentException("Missing argument");
+            String t = token();
+            try {
+                return Double.parseDouble(t);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + t);
+            }
+        }
+
+        private String token() {
+            int start = pos;
+            while (pos < s.length() && !isDelimiter(s.charAt(pos))) pos++;
+            return s.substring(start, pos);
+        }
+
+        private void skipInlineBlanks() {
+            while (pos < s.length() && (s.charAt(pos) == ' ' || s.charAt(pos) == '\t'
+                                        || s.charAt(pos) == ',')) pos++;
+        }
+
+        private static boolean isStepEnd(char c) {
+            return c == '\n' || c == '\r' || c == ';' || c == '#';
+        }
+
+        private static boolean isDelimiter(char c) {
+            return Character.isWhitespace(c) || c == ';' || c == ',' || c == '#';
+        }
+    }
+
+    private static final class TextWriter implements OperationCodec.Writer {
+        private final StringBuilder sb;
+
+        TextWriter(StringBuilder sb) { this.sb = sb; }
+
+        @Override public void writeInt(int value) { sb.append(' ').append(value); }
+
+        @Override
+        public void writeDouble(double value) {
+            sb.append(' ');
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) sb.append((long) value);
+            else sb.append(value);
+        }
+
+        @Override public void writeWord(String value) { sb.append(' ').append(value); }
+    }
+
+    // ── Binary format ─────────────────────────────────────────────────────
+
+    /** @return true if {@code data} starts with the binary magic, of any version read */
+    public static boolean isBinary(byte[] data) {
+        int last = MAGIC.length - 1;
+        return data.length >= MAGIC.length
+            && Arrays.equals(data, 0, last, MAGIC, 0, last)
+            && data[last] >= INT_DOUBLES_VERSION && data[last] <= MAGIC[last];
+    }
+
+    /** @return the binary form */
+    public byte[] toBytes() {
+        List<String> names = new ArrayList<>();
+        BinaryWriter body = new BinaryWriter();
+        BinaryWriter args = new BinaryWriter();
+        body.varint(operations.size());
+        for (ImageOperation op : operations) {
+            OperationCodec<ImageOperation> codec = OperationRegistry.forOperation(op);
+            int index = names.indexOf(codec.name());
+            if (index < 0) {
+                index = names.size();
+                names.add(codec.name());
+            }
+            args.reset();
+            codec.encode(op, args);
+            body.varint(index);
+            body.varint(args.size());
+            args.copyTo(body);
+        }
+
+        BinaryWriter out = new BinaryWriter();
+        out.write(MAGIC, 0, MAGIC.length);
+        out.varint(names.size());
+        names.forEach(out::writeWord);
+        body.copyTo(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes the binary form.
+     *
+     * @throws IllegalArgumentException if the data is malformed
+     */
+    public static Pipeline fromBytes(byte[] data) {
+        if (!isBinary(data)) throw new IllegalArgumentException("Not a binary pipeline");
+        boolean intDoubles = data[MAGIC.length - 1] == INT_DOUBLES_VERSION;
+        BinaryReader in = new BinaryReader(data, MAGIC.length, data.length, intDoubles);
+        String[] names = new String[in.varint()];
+        for (int i = 0; i < names.length; i++) names[i] = in.readWord();
+
+        int count = in.varint();
+        List<ImageOperation> ops = new ArrayList<>(Math.min(count, 1 << 16));
+        for (int i = 0; i < count; i++) {
+            int index = in.varint();
+            if (index >= names.length) throw new IllegalArgumentException("Bad operation index");
+            int length = in.varint();
+            int end = in.skip(length);
+            OperationCodec<?> codec = OperationRegistry.byName(names[index]);
+            BinaryReader args = new BinaryReader(data, end - length, end, intDoubles);
+            ops.add(codec.decode(args));
+            if (args.hasMore()) {
+                throw new IllegalArgumentException("Too many arguments for '" + codec.name() + "'");
+            }
+        }
+        return new Pipeline(List.copyOf(ops));
+    }
+
+    private static final class BinaryWriter extends ByteArrayOutputStream
+                                            implements OperationCodec.Writer {
+        void varint(int v) {
+            while ((v & ~0x7F) != 0) {
+                write((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            write(v);
+        }
+
+        void copyTo(BinaryWriter other) { other.write(buf, 0, count); }
+
+        @Override public void writeInt(int value) { varint((value << 1) ^ (value >> 31)); }
+
+        @Override
+        public void writeDouble(double value) {
+            long bits = Double.doubleToLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) write((int) (bits >>> shift));
+        }
+
+        @Override
+        public void writeWord(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static final class BinaryReader implements OperationCodec.Reader {
+        private final byte[] data;
+        private final int end;
+        private final boolean intDoubles;
+        private int pos;
+
+        BinaryReader(byte[] data, int pos, int end, boolean intDoubles) {
+            this.data = data;
+            this.pos = pos;
+            this.end = end;
+            this.intDoubles = intDoubles;
+        }
+
+        int varint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = next();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        /** Skips n bytes; @return the position after them */
+        int skip(int n) {
+            if (n < 0 || n > end - pos) throw new IllegalArgumentException("Truncated pipeline");
+            pos += n;
+            return pos;
+        }
+
+        private byte next() {
+            if (pos >= end) throw new IllegalArgumentException("Truncated pipeline");
+            return data[pos++];
+        }
+
+        @Override public boolean hasMore() { return pos < end; }
+
+        @Override
+        public int readInt() {
+            int v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        @Override
+        public double readDouble() {
+            if (intDoubles) return readInt();
+            long bits = 0;
+            for (int i = 0; i < 8; i++) bits = (bits << 8) | (next() & 0xFF);
+            return Double.longBitsToDouble(bits);
+        }
+
+        @Override
+        public String readWord() {
+            int length = varint();
+            int start = pos;
+            skip(length);
+            return new String(data, start, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    // ── Object ────────────────────────────────────────────────────────────
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+}
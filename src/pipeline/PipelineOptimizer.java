@@ -0,0 +1,225 @@
+package pipeline;
+
+import operations.CropOperation;
+import operations.ImageOperation;
+import operations.InvertOperation;
+import operations.RotateOperation;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PipelineOptimizer.java
+ * ----------------------
+ * Rewrites an operation list into an equivalent, cheaper plan before it
+ * is executed.  Every rule produces exactly the same pixels (and the same
+ * exception for an invalid crop) as running the list literally:
+ *
+ *   - operations whose clamped region is empty, 1×1 rotations and crops
+ *     covering the whole image are dropped;
+ *   - an operation followed by its exact inverse
+ *     ({@link ImageOperation#inverse}) cancels, e.g. two inversions of the
+ *     same region on image types where inversion is a lossless XOR;
+ *   - rotations of the same region add up modulo 360 when the region is
+ *     square (any angle) or both are 180°, and vanish at 0°;
+ *   - consecutive crops compose into one crop;
+ *   - a crop moves ahead of an inversion, and ahead of a rotation whose
+ *     region lies fully inside or fully outside the crop, so the earlier
+ *     steps work on fewer pixels; operations entirely outside the crop
+ *     are dropped.
+ *
+ * Rules are applied to adjacent pairs until none matches.  A pair may
+ * also be split by up to {@value #LOOKAHEAD} size-keeping operations that
+ * all commute with its second member ({@link ImageOperation#commutesWith}),
+ * which is then moved back next to the first: inverting a region, touching
+ * another one and inverting the first again costs nothing.  The result is
+ * then restricted to the source pixels it actually needs by
+ * {@link RegionPlanner}, and the pair rules run once more on that plan.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class PipelineOptimizer {
+
+    /** How far ahead a pair's second operation is looked for. */
+    static final int LOOKAHEAD = 32;
+
+    private PipelineOptimizer() { }
+
+    /**
+     * Returns an optimized copy of {@code ops}; the argument is not modified.
+     *
+     * @param ops       operations in execution order
+     * @param width     width of the image the pipeline starts from
+     * @param height    height of the image the pipeline starts from
+     * @param imageType BufferedImage type of that image
+     * @return an equivalent plan, possibly shorter
+     */
+    public static List<ImageOperation> optimize(List<ImageOperation> ops,
+                                                int width, int height, int imageType) {
+        List<ImageOperation> plan = rewrite(ops, width, height, imageType);
+        List<ImageOperation> restricted = RegionPlanner.restrict(plan, width, height);
+        return restricted == plan ? plan : rewrite(restricted, width, height, imageType);
+    }
+
+    /** Applies the pair rules until none matches. */
+    private static List<ImageOperation> rewrite(List<ImageOperation> ops,
+                                                int width, int height, int imageType) {
+        List<ImageOperation> plan = new ArrayList<>(ops);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int w = width, h = height;
+            for (int i = 0; i < plan.size() && !changed; i++) {
+                ImageOperation a = plan.get(i);
+                ImageOperation b = i + 1 < plan.size() ? plan.get(i + 1) : null;
+
+                List<ImageOperation> single = simplify(a, w, h);
+                List<ImageOperation> pair   = single == null && b != null
+                    ? combine(a, b, w, h, imageType) : null;
+                if (single != null) {
+                    splice(plan, i, 1, single);
+                    changed = true;
+                } else if (pair != null) {
+                    splice(plan, i, 2, pair);
+                    changed = true;
+                } else if (combineAcross(plan, i, w, h, imageType)) {
+                    changed = true;
+                } else if (a instanceof CropOperation crop) {
+                    Rectangle r = clamp(crop.getRegion(), w, h);
+                    if (r.isEmpty()) break;   // throws at run time; leave the rest as is
+                    w = r.width;
+                    h = r.height;
+                }
+            }
+        }
+        return plan;
+    }
+
+    // ── Rules ─────────────────────────────────────────────────────────────
+
+    /** @return a replacement for a single operation, or null to keep it */
+    private static List<ImageOperation> simplify(ImageOperation op, int w, int h) {
+        if (op instanceof InvertOperation inv && clamp(inv.getRegion(), w, h).isEmpty()) {
+            return List.of();
+        }
+        if (op instanceof RotateOperation rot) {
+            Rectangle r = clamp(rot.getRegion(), w, h);
+            if (r.isEmpty() || (r.width == 1 && r.height == 1) || rot.getDegrees() == 0) {
+                return List.of();
+            }
+        }
+        if (op instanceof CropOperation crop
+                && clamp(crop.getRegion(), w, h).equals(new Rectangle(0, 0, w, h))) {
+            return List.of();
+        }
+        return null;
+    }
+
+    /** @return a replacement for the adjacent pair (a, b), or null to keep it */
+    private static List<ImageOperation> combine(ImageOperation a, ImageOperation b,
+                                                int w, int h, int imageType) {
+        // An operation followed by its inverse, e.g. Invert ∘ Invert on the same region
+        ImageOperation inverse = a.inverse(w, h, imageType);
+        if (inverse != null && sameEffect(inverse, b, w, h)) return List.of();
+
+        // Rotate ∘ Rotate by right angles on the same region (resampling twice
+        // is not the same as resampling once, so other angles are kept)
+        if (a instanceof RotateOperation ra && b instanceof RotateOperation rb
+                && ra.isRightAngle() && rb.isRightAngle()) {
+            Rectangle r = clamp(ra.getRegion(), w, h);
+            boolean bothHalfTurns = ra.getDegrees() == 180 && rb.getDegrees() == 180;
+            if (r.equals(clamp(rb.getRegion(), w, h)) && (r.width == r.height || bothHalfTurns)) {
+                int sum = (int) (ra.getDegrees() + rb.getDegrees()) % 360;
+                Rectangle g = ra.getRegion();
+                return sum == 0 ? List.of()
+                    : List.of(new RotateOperation(g.x, g.y, g.x + g.width, g.y + g.height, sum));
+            }
+        }
+
+        if (!(b instanceof CropOperation cb)) return null;
+
+        // Crop ∘ Crop: the second crop is relative to the first one's result
+        if (a instanceof CropOperation ca) {
+            Rectangle first = clamp(ca.getRegion(), w, h);
+            if (first.isEmpty()) return null;
+            Rectangle second = cb.getRegion();
+            second.translate(first.x, first.y);
+            Rectangle r = second.intersection(first);
+            if (r.isEmpty()) r = new Rectangle(first.x, first.y, 0, 0); // still throws
+            return List.of(new CropOperation(r.x, r.y, r.x + r.width, r.y + r.height));
+        }
+
+        // Hoist the crop: the earlier operation then works on fewer pixels.
+        // Invert and rotate keep the image size, so b sees a w×h image too.
+        Rectangle crop = clamp(cb.getRegion(), w, h);
+        if (crop.isEmpty()) return null;  // b throws; keep the error where it is
+        if (a instanceof InvertOperation ia) {
+            if (!clamp(ia.getRegion(), w, h).intersects(crop)) return List.of(cb);
+            return List.of(cb, ia.translate(-crop.x, -crop.y));
+        }
+        if (a instanceof RotateOperation ra) {
+            Rectangle r = clamp(ra.getRegion(), w, h);
+            if (!r.intersects(crop)) return List.of(cb);
+            if (crop.contains(r)) return List.of(cb, ra.translate(-crop.x, -crop.y));
+        }
+        return null;
+    }
+
+    /**
+     * Tries the pair rules on plan[i] and a later plan[j] that commutes
+     * with every operation between them, as if plan[j] had been moved right
+     * after plan[i].  Everything from i to j keeps the image size, so all of
+     * it sees the same w×h image.
+     *
+     * @return true if a pair was combined (the plan is updated)
+     */
+    private static boolean combineAcross(List<ImageOperation> plan, int i,
+                                         int w, int h, int imageType) {
+        ImageOperation a = plan.get(i);
+        if (a.changedRegion(w, h) == null) return false;
+        int end = Math.min(plan.size(), i + 2 + LOOKAHEAD);
+        for (int j = i + 2; j < end; j++) {
+            if (plan.get(j - 1).changedRegion(w, h) == null) return false;   // size may change
+            List<ImageOperation> pair = combine(a, plan.get(j), w, h, imageType);
+            if (pair != null && commutesWithAll(plan.get(j), plan.subList(i + 1, j), w, h)) {
+                plan.remove(j);
+                splice(plan, i, 1, pair);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean commutesWithAll(ImageOperation op, List<ImageOperation> others,
+                                           int w, int h) {
+        for (ImageOperation other : others) {
+            if (!op.commutesWith(other, w, h)) return false;
+        }
+        return true;
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    /** @return true if {@code a} and {@code b} do the same to a w×h image */
+    private static boolean sameEffect(ImageOperation a, ImageOperation b, int w, int h) {
+        if (a.getClass() != b.getClass()) return false;
+        Rectangle ra = a.changedRegion(w, h), rb = b.changedRegion(w, h);
+        if (ra == null || rb == null || !clamp(ra, w, h).equals(clamp(rb, w, h))) return false;
+        return !(a instanceof RotateOperation rot)
+            || rot.getDegrees() == ((RotateOperation) b).getDegrees();
+    }
+
+    /** @return the part of {@code r} inside a w×h image (may be empty) */
+    static Rectangle clamp(Rectangle r, int w, int h) {
+        Rectangle c = r.intersection(new Rectangle(0, 0, w, h));
+        return c.isEmpty() ? new Rectangle() : c;
+    }
+
+    private static void splice(List<ImageOperation> plan, int at, int count,
+                               List<ImageOperation> replacement) {
+        plan.subList(at, at + count).clear();
+        plan.addAll(at, replacement);
+    }
+}
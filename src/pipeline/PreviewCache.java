@@ -0,0 +1,107 @@
+package pipeline;
+
+import operations.ImageOperation;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PreviewCache.java
+ * -----------------
+ * Memoized intermediate results of a pipeline, keyed by the prefix of
+ * operations that produced them and the mip level (see {@link MipPyramid})
+ * they were rendered at.
+ *
+ * Keys compare operations by identity, which is exactly what an editor
+ * needs: appending a step, removing the last one or re-running an
+ * unchanged pipeline all find a cached prefix, while any edit that
+ * replaces an operation naturally misses.  Entries are evicted least
+ * recently used first once their total size exceeds the byte budget.
+ *
+ * Stored images are owned by the cache and must not be modified; callers
+ * copy a snapshot before continuing the pipeline from it.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class PreviewCache {
+
+    /** A cached prefix: its length and the image after that many steps. */
+    public record Hit(int length, BufferedImage image) { }
+
+    private final long budgetBytes;
+    private final int  interval;
+    private record Key(int level, List<ImageOperation> prefix) { }
+
+    private final LinkedHashMap<Key, BufferedImage> entries =
+        new LinkedHashMap<>(16, 0.75f, true);   // access order = LRU
+    private long usedBytes;
+
+    /**
+     * @param budgetBytes maximum total size of the cached images
+     * @param interval    keep a snapshot every {@code interval} steps
+     *                    (1 = after every step, which makes undo free)
+     */
+    public PreviewCache(long budgetBytes, int interval) {
+        if (interval < 1) throw new IllegalArgumentException("interval must be at least 1");
+        this.budgetBytes = budgetBytes;
+        this.interval = interval;
+    }
+
+    public int getInterval() { return interval; }
+
+    public long getBudgetBytes() { return budgetBytes; }
+
+    /** @return total size of the images currently cached */
+    public synchronized long getUsedBytes() { return usedBytes; }
+
+    /**
+     * Finds the longest prefix of {@code ops} that has a snapshot at
+     * mip level {@code level}.
+     *
+     * @return the hit, or null if no prefix is cached
+     */
+    public synchronized Hit longestPrefix(List<ImageOperation> ops, int level) {
+        for (int k = ops.size(); k > 0; k--) {
+            BufferedImage image = entries.get(new Key(level, ops.subList(0, k)));
+            if (image != null) return new Hit(k, image);
+        }
+        return null;
+    }
+
+    /**
+     * Stores the result of running {@code prefix} at mip level
+     * {@code level}.  The cache takes ownership of {@code snapshot}.
+     * Images larger than the whole budget are not stored.
+     */
+    public synchronized void put(List<ImageOperation> prefix, int level, BufferedImage snapshot) {
+        long size = sizeOf(snapshot);
+        if (size > budgetBytes) return;
+
+        BufferedImage old = entries.put(new Key(level, List.copyOf(prefix)), snapshot);
+        usedBytes += size - (old == null ? 0 : sizeOf(old));
+
+        Iterator<Map.Entry<Key, BufferedImage>> it = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            usedBytes -= sizeOf(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    /** Drops every snapshot. */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    /** @return approximate heap size of an image's pixel data */
+    public static long sizeOf(BufferedImage image) {
+        DataBuffer db = image.getRaster().getDataBuffer();
+        return (long) db.getSize() * db.getNumBanks()
+             * DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+    }
+}
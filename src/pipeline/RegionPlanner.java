@@ -0,0 +1,79 @@
+package pipeline;
+
+import operations.CropOperation;
+import operations.ImageOperation;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RegionPlanner.java
+ * ------------------
+ * Restricts a pipeline to the pixels that reach its result.
+ *
+ * Starting from the whole final image, the needed rectangle is carried
+ * backwards through every operation's {@link ImageOperation#inputRegion}.
+ * If the first operation only needs part of the source (because a crop
+ * somewhere discards the rest), the plan starts with a crop to that part
+ * and every operation is replaced by its {@link ImageOperation#restrictTo
+ * restricted} form, so e.g. an invert of the whole image followed by a
+ * 500×500 crop only ever inverts 500×500 pixels.
+ *
+ * Rotations partially inside a later crop are the case the pair rules of
+ * {@link PipelineOptimizer} cannot hoist a crop past; here they just widen
+ * the needed rectangle by their own region.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class RegionPlanner {
+
+    private RegionPlanner() { }
+
+    /**
+     * Returns {@code ops} restricted to the source rectangle they need, or
+     * {@code ops} itself if they need all of it or some operation does not
+     * describe its region of interest.
+     *
+     * @param width  width of the image the pipeline starts from
+     * @param height height of the image the pipeline starts from
+     */
+    public static List<ImageOperation> restrict(List<ImageOperation> ops, int width, int height) {
+        int n = ops.size();
+        if (n == 0) return ops;
+
+        // Forward: the image bounds before each step
+        Rectangle[] bounds = new Rectangle[n + 1];
+        bounds[0] = new Rectangle(width, height);
+        for (int i = 0; i < n; i++) {
+            Rectangle out = ops.get(i).outputRegion(bounds[i], bounds[i].width, bounds[i].height);
+            if (out == null || out.isEmpty()) return ops;   // unknown, or a crop that throws
+            bounds[i + 1] = new Rectangle(out.width, out.height);
+        }
+
+        // Backward: the rectangle each step needs from its input
+        Rectangle[] need = new Rectangle[n + 1];
+        need[n] = bounds[n];
+        for (int i = n - 1; i >= 0; i--) {
+            Rectangle in = ops.get(i).inputRegion(need[i + 1], bounds[i].width, bounds[i].height);
+            if (in == null) return ops;
+            need[i] = in.intersection(bounds[i]);
+        }
+        if (need[0].equals(bounds[0])) return ops;
+
+        // Crop to what is needed first, then run every step on its window
+        List<ImageOperation> plan = new ArrayList<>(n + 1);
+        Rectangle window = need[0];
+        plan.add(new CropOperation(window.x, window.y,
+                                   window.x + window.width, window.y + window.height));
+        for (int i = 0; i < n; i++) {
+            ImageOperation op = ops.get(i);
+            ImageOperation restricted = op.restrictTo(window, bounds[i].width, bounds[i].height);
+            if (restricted == null) return ops;
+            plan.add(restricted);
+            window = op.outputRegion(window, bounds[i].width, bounds[i].height);
+        }
+        return plan;
+    }
+}
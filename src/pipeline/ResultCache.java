@@ -0,0 +1,299 @@
+package pipeline;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ResultCache.java
+ * ----------------
+ * Encoded outputs of earlier runs, addressed by what produced them: the
+ * SHA-256 of the source file's bytes, the binary form of the pipeline
+ * ({@link Pipeline#toBytes}, which unlike {@code toString} is exact and
+ * versioned) and the output format with its encoder settings.  A hit
+ * returns the finished file bytes, so nothing is decoded, rendered or
+ * encoded.  A pipeline holding an operation without a registered codec
+ * has no such form; its outputs are rendered every time and not stored.
+ *
+ * Two tiers:
+ *
+ *   - memory: least recently used entries are evicted once the total
+ *     size exceeds the memory budget;
+ *   - disk (optional): one file per key under a directory.  Past the
+ *     disk budget the oldest-used files are deleted down to
+ *     {@value #DISK_LOW_WATER_PERCENT}% of it, so the directory is listed
+ *     once per batch of puts rather than on every put.  A disk hit is
+ *     promoted to memory.  Files are written to a temporary name and moved into
+ *     place, so concurrent processes sharing the directory never read a
+ *     partial entry.
+ *
+ * Hits per tier, misses and evictions are counted for reporting.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class ResultCache {
+
+    /** Bumped whenever a change to rendering or encoding alters outputs. */
+    private static final String VERSION = "result-cache/1";
+
+    /** Disk eviction stops once the files fit in this share of the budget. */
+    private static final int DISK_LOW_WATER_PERCENT = 90;
+
+    private final long memoryBudget;
+    private final Path dir;           // null: memory only
+    private final long diskBudget;
+
+    private final LinkedHashMap<String, byte[]> memory =
+        new LinkedHashMap<>(16, 0.75f, true);   // access order = LRU
+    private long memoryBytes;
+    private final Object diskLock = new Object();
+    private long diskBytes;
+
+    private final LongAdder memoryHits = new LongAdder(), diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder memoryEvictions = new LongAdder(), diskEvictions = new LongAdder();
+
+    /** A cache held in memory only. */
+    public ResultCache(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+        this.dir = null;
+        this.diskBudget = 0;
+    }
+
+    /**
+     * A cache backed by {@code dir}, which is created if needed; entries
+     * already there from earlier runs are reused.
+     *
+     * @throws IOException if the directory cannot be created or listed
+     */
+    public ResultCache(long memoryBudget, Path dir, long diskBudget) throws IOException {
+        if (dir == null) throw new IllegalArgumentException("dir must not be null");
+        this.memoryBudget = memoryBudget;
+        this.dir = dir;
+        this.diskBudget = diskBudget;
+        Files.createDirectories(dir);
+        diskBytes = entries().stream().mapToLong(DiskEntry::size).sum();
+    }
+
+    // ── Keys ──────────────────────────────────────────────────────────────
+
+    /**
+     * @param sourceDigest SHA-256 of the source file (see {@link #digest(Path)})
+     * @param pipeline     the operations applied
+     * @param encoding     output format plus whatever encoder settings
+     *                     change its bytes, e.g. {@code "png level=2 filter=ADAPTIVE"}
+     * @return the hex key of the output, or null if the pipeline holds an
+     *         operation without a codec: it has no exact binary form, so
+     *         its output is rendered and never cached
+     */
+    public static String key(byte[] sourceDigest, Pipeline pipeline, String encoding) {
+        if (!pipeline.operations().stream().allMatch(OperationRegistry::hasCodec)) return null;
+        MessageDigest md = sha256();
+        md.update(VERSION.getBytes(StandardCharsets.UTF_8));
+        md.update(sourceDigest);
+        byte[] ops = pipeline.toBytes();
+        md.update(lengthOf(ops.length));
+        md.update(ops);
+        md.update(encoding.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    /** @return SHA-256 of the file's bytes */
+    public static byte[] digest(Path file) throws IOException {
+        MessageDigest md = sha256();
+        byte[] buf = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int n; (n = in.read(buf)) > 0; ) md.update(buf, 0, n);
+        }
+        return md.digest();
+    }
+
+    /** @return SHA-256 of {@code data} */
+    public static byte[] digest(byte[] data) {
+        return sha256().digest(data);
+    }
+
+    // ── Lookup ────────────────────────────────────────────────────────────
+
+    /**
+     * @return the cached output for {@code key}, or null on a miss; the
+     *         array is shared and must not be modified
+     * @throws UncheckedIOException if a disk entry exists but cannot be read
+     */
+    public byte[] get(String key) {
+        byte[] data;
+        synchronized (this) {
+            data = memory.get(key);
+        }
+        if (data != null) {
+            memoryHits.increment();
+            return data;
+        }
+        if (dir != null) {
+            Path file = fileOf(key);
+            try {
+                data = Files.readAllBytes(file);
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (NoSuchFileException e) {
+                data = null;   // not cached, or evicted meanwhile
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (data != null) {
+                diskHits.increment();
+                putMemory(key, data);
+                return data;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores {@code data} under {@code key} in both tiers.  The cache keeps
+     * the array, which must not be modified afterwards.
+     *
+     * @throws IOException if the disk entry cannot be written
+     */
+    public void put(String key, byte[] data) throws IOException {
+        putMemory(key, data);
+        if (dir == null || data.length > diskBudget) return;
+
+        Path file = fileOf(key);
+        if (Files.exists(file)) return;
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), key, ".tmp");
+        try {
+            Files.write(tmp, data);
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        synchronized (diskLock) {
+            diskBytes += data.length;
+            if (diskBytes > diskBudget) evictDisk();
+        }
+    }
+
+    // ── Counters ──────────────────────────────────────────────────────────
+
+    public long getMemoryHits()      { return memoryHits.sum(); }
+    public long getDiskHits()        { return diskHits.sum(); }
+    public long getMisses()          { return misses.sum(); }
+    public long getMemoryEvictions() { return memoryEvictions.sum(); }
+    public long getDiskEvictions()   { return diskEvictions.sum(); }
+
+    /** @return total size of the outputs held in memory */
+    public synchronized long getMemoryBytes() { return memoryBytes; }
+
+    /** @return total size of the outputs on disk (0 without a directory) */
+    public long getDiskBytes() {
+        synchronized (diskLock) {
+            return diskBytes;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d memory hits, %d disk hits, %d misses, %d+%d evictions"
+                + " (%.1f MB in memory, %.1f MB on disk)",
+            getMemoryHits(), getDiskHits(), getMisses(), getMemoryEvictions(), getDiskEvictions(),
+            getMemoryBytes() / 1e6, getDiskBytes() / 1e6);
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    private synchronized void putMemory(String key, byte[] data) {
+        if (data.length > memoryBudget) return;
+        byte[] old = memory.put(key, data);
+        memoryBytes += data.length - (old == null ? 0 : old.length);
+
+        Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+        while (memoryBytes > memoryBudget && it.hasNext()) {
+            memoryBytes -= it.next().getValue().length;
+            it.remove();
+            memoryEvictions.increment();
+        }
+    }
+
+    /**
+     * Deletes the least recently used files until the disk tier fits in
+     * {@value #DISK_LOW_WATER_PERCENT}% of its budget.
+     */
+    private void evictDisk() throws IOException {
+        List<DiskEntry> entries = entries();
+        entries.sort(Comparator.comparingLong(DiskEntry::lastUsed));
+        // Recount rather than trust the counter, which other processes don't update
+        diskBytes = entries.stream().mapToLong(DiskEntry::size).sum();
+        long lowWater = diskBudget / 100 * DISK_LOW_WATER_PERCENT;
+        for (DiskEntry entry : entries) {
+            if (diskBytes <= lowWater) break;
+            if (Files.deleteIfExists(entry.file())) diskEvictions.increment();
+            diskBytes -= entry.size();   // gone either way
+        }
+    }
+
+    /** Entries are spread over 256 subdirectories by the key's first byte. */
+    private Path fileOf(String key) {
+        return dir.resolve(key.substring(0, 2)).resolve(key + ".bin");
+    }
+
+    /** An entry file with the size and last-use time read in one stat. */
+    private record DiskEntry(Path file, long size, long lastUsed) { }
+
+    /** Lists every entry file, skipping those deleted while listing. */
+    private List<DiskEntry> entries() throws IOException {
+        List<DiskEntry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> subdirs = Files.newDirectoryStream(dir, Files::isDirectory)) {
+            for (Path sub : subdirs) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(sub, "*.bin")) {
+                    for (Path file : files) {
+                        try {
+                            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                            entries.add(new DiskEntry(file, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                        } catch (NoSuchFileException e) {
+                            // evicted by another process meanwhile
+                        }
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static byte[] lengthOf(int n) {
+        return new byte[] { (byte) (n >>> 24), (byte) (n >>> 16), (byte) (n >>> 8), (byte) n };
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);   // every JDK has SHA-256
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package tiled;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Vector;
+
+/**
+ * TiledImage.java
+ * ---------------
+ * An ARGB (or RGB) image whose pixels live in a memory-mapped file instead
+ * of the Java heap, for images too large to decode into a BufferedImage.
+ *
+ * The file holds square tiles one after another, row of tiles by row of
+ * tiles, one int per pixel; edge tiles are stored full size.  The file is
+ * mapped with {@link FileChannel#map} in chunks of up to 64 MB when first
+ * touched.  No pixels are on the Java heap: resident tiles are file cache
+ * that the OS writes back and evicts under memory pressure, so the
+ * working set is bounded by the pages an operation is currently touching,
+ * whatever the image size.  Chunks stay mapped until {@link #close()},
+ * which unmaps them right away rather than waiting for the garbage
+ * collector, so a long batch does not run out of mappings.
+ *
+ * A TiledImage is a {@link RenderedImage}, so {@code ImageIO.write} can
+ * encode it: the PNG, BMP and TIFF writers request it a few rows or tiles
+ * at a time and the full frame never exists on the heap.  Operations work
+ * on it tile by tile through {@link TiledOperation}.
+ *
+ * Not thread-safe.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class TiledImage implements RenderedImage, Closeable {
+
+    public static final int DEFAULT_TILE_SIZE = 512;
+    private static final long CHUNK_BYTES = 64L << 20;
+
+    private static final int[] ARGB_MASKS = { 0x00FF0000, 0x0000FF00, 0x000000FF, 0xFF000000 };
+    private static final int[] RGB_MASKS  = { 0x00FF0000, 0x0000FF00, 0x000000FF };
+
+    private final int width, height, tileSize, tilesX, tilesY;
+    private final boolean alpha;
+    private final Path file;
+    private final boolean deleteOnClose;
+    private final FileChannel channel;
+    private final int tilesPerChunk;
+    private final MappedByteBuffer[] chunks;
+    private final IntBuffer[] tiles;   // views into the chunks, created on first use
+
+    private TiledImage(int width, int height, boolean alpha, int tileSize,
+                       Path file, boolean deleteOnClose) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Image size must be positive: " + width + "×" + height);
+        }
+        if (tileSize <= 0 || tileSize > 8192) {
+            throw new IllegalArgumentException("Tile size must be between 1 and 8192: " + tileSize);
+        }
+        this.width  = width;
+        this.height = height;
+        this.alpha  = alpha;
+        this.tileSize = tileSize;
+        this.tilesX = (width  + tileSize - 1) / tileSize;
+        this.tilesY = (height + tileSize - 1) / tileSize;
+        this.tilesPerChunk = (int) Math.max(1, CHUNK_BYTES / tileBytes());
+        this.tiles  = new IntBuffer[Math.multiplyExact(tilesX, tilesY)];
+        this.chunks = new MappedByteBuffer[(tiles.length + tilesPerChunk - 1) / tilesPerChunk];
+        this.file = file;
+        this.deleteOnClose = deleteOnClose;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE);
+    }
+
+    // ── Creation ──────────────────────────────────────────────────────────
+
+    /**
+     * Creates a blank image (all zero: transparent black, or black without
+     * alpha) in a temporary file that is deleted on {@link #close()}.
+     */
+    public static TiledImage create(int width, int height, boolean alpha) throws IOException {
+        Path tmp = Files.createTempFile("tiled-", ".pix");
+        return new TiledImage(width, height, alpha, DEFAULT_TILE_SIZE, tmp, true);
+    }
+
+    /**
+     * Creates a blank image backed by {@code file}, which is kept on close.
+     *
+     * @param tileSize tile edge in pixels
+     */
+    public static TiledImage create(int width, int height, boolean alpha, int tileSize,
+                                    Path file) throws IOException {
+        return new TiledImage(width, height, alpha, tileSize, file, false);
+    }
+
+    /**
+     * @return a blank temporary image with the same pixel format and tile
+     *         size as this one
+     */
+    public TiledImage createCompatible(int width, int height) throws IOException {
+        Path tmp = Files.createTempFile("tiled-", ".pix");
+        return new TiledImage(width, height, alpha, tileSize, tmp, true);
+    }
+
+    /**
+     * Decodes an image file into a new TiledImage, one strip of rows at a
+     * time, so at most one strip is ever on the heap.  Formats whose
+     * readers can seek (TIFF, BMP) decode each strip directly; others (PNG,
+     * JPEG) re-read the file up to each strip, which is slower but still
+     * bounded in memory.
+     *
+     * @throws IOException if no reader understands the file
+     */
+    public static TiledImage read(Path path) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + path);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int w = reader.getWidth(0), h = reader.getHeight(0);
+                Iterator<ImageTypeSpecifier> types = reader.getImageTypes(0);
+                boolean alpha = types.hasNext() && types.next().getColorModel().hasAlpha();
+
+                TiledImage image = create(w, h, alpha);
+                try {
+                    int[] row = new int[w];
+                    ImageReadParam param = reader.getDefaultReadParam();
+                    for (int y = 0; y < h; y += image.tileSize) {
+                        int rows = Math.min(image.tileSize, h - y);
+                        param.setSourceRegion(new Rectangle(0, y, w, rows));
+                        BufferedImage strip = reader.read(0, param);
+                        for (int r = 0; r < rows; r++) {
+                            strip.getRGB(0, r, w, 1, row, 0, w);
+                            image.writeRegion(0, y + r, w, 1, row, 0, w);
+                        }
+                    }
+                    return image;
+                } catch (IOException | RuntimeException e) {
+                    image.close();
+                    throw e;
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Copies a BufferedImage into a new TiledImage (mostly for tests and small inputs). */
+    public static TiledImage of(BufferedImage src) throws IOException {
+        int w = src.getWidth();
+        TiledImage image = create(w, src.getHeight(), src.getColorModel().hasAlpha());
+        int[] row = new int[w];
+        for (int y = 0; y < src.getHeight(); y++) {
+            src.getRGB(0, y, w, 1, row, 0, w);
+            image.writeRegion(0, y, w, 1, row, 0, w);
+        }
+        return image;
+    }
+
+    /**
+     * Encodes the image with ImageIO.
+     *
+     * @throws IOException if there is no writer for {@code format}
+     */
+    public void write(Path path, String format) throws IOException {
+        if (!ImageIO.write(this, format, path.toFile())) {
+            throw new IOException("No " + format + " writer for this image");
+        }
+    }
+
+    // ── Pixel access ──────────────────────────────────────────────────────
+
+    public int getTileSize() { return tileSize; }
+
+    public boolean hasAlpha() { return alpha; }
+
+    /**
+     * Returns the mapped pixels of tile ({@code tx}, {@code ty}),
+     * {@code tileSize} ints per row.  The buffer is valid until
+     * {@link #close()}.
+     */
+    public IntBuffer tile(int tx, int ty) throws IOException {
+        int index = ty * tilesX + tx;
+        IntBuffer buffer = tiles[index];
+        if (buffer == null) {
+            int c = index / tilesPerChunk;
+            if (chunks[c] == null) {
+                long start = (long) c * tilesPerChunk * tileBytes();
+                long bytes = (long) Math.min(tilesPerChunk, tiles.length - c * tilesPerChunk)
+                           * tileBytes();
+                chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, start, bytes);
+            }
+            int ints = tileSize * tileSize;
+            buffer = chunks[c].duplicate().order(ByteOrder.nativeOrder()).asIntBuffer()
+                              .slice((index - c * tilesPerChunk) * ints, ints);
+            tiles[index] = buffer;
+        }
+        return buffer;
+    }
+
+    private long tileBytes() {
+        return (long) tileSize * tileSize * Integer.BYTES;
+    }
+
+    /**
+     * Copies pixels of [x, x+w)×[y, y+h) into {@code dst} as ARGB,
+     * {@code scan} ints per row starting at {@code off}.  The region must
+     * lie inside the image.
+     */
+    public void readRegion(int x, int y, int w, int h, int[] dst, int off, int scan)
+            throws IOException {
+        checkRegion(x, y, w, h);
+        for (int ty = y / tileSize; ty <= (y + h - 1) / tileSize; ty++) {
+            int y0 = Math.max(y, ty * tileSize), y1 = Math.min(y + h, (ty + 1) * tileSize);
+            for (int tx = x / tileSize; tx <= (x + w - 1) / tileSize; tx++) {
+                int x0 = Math.max(x, tx * tileSize), x1 = Math.min(x + w, (tx + 1) * tileSize);
+                IntBuffer t = tile(tx, ty);
+                for (int yy = y0; yy < y1; yy++) {
+                    t.get((yy - ty * tileSize) * tileSize + (x0 - tx * tileSize),
+                          dst, off + (yy - y) * scan + (x0 - x), x1 - x0);
+                }
+            }
+        }
+        if (!alpha) {
+            for (int r = 0; r < h; r++) {
+                for (int i = off + r * scan, end = i + w; i < end; i++) dst[i] |= 0xFF000000;
+            }
+        }
+    }
+
+    /** Inverse of {@link #readRegion}. */
+    public void writeRegion(int x, int y, int w, int h, int[] src, int off, int scan)
+            throws IOException {
+        checkRegion(x, y, w, h);
+        for (int ty = y / tileSize; ty <= (y + h - 1) / tileSize; ty++) {
+            int y0 = Math.max(y, ty * tileSize), y1 = Math.min(y + h, (ty + 1) * tileSize);
+            for (int tx = x / tileSize; tx <= (x + w - 1) / tileSize; tx++) {
+                int x0 = Math.max(x, tx * tileSize), x1 = Math.min(x + w, (tx + 1) * tileSize);
+                IntBuffer t = tile(tx, ty);
+                for (int yy = y0; yy < y1; yy++) {
+                    t.put((yy - ty * tileSize) * tileSize + (x0 - tx * tileSize),
+                          src, off + (yy - y) * scan + (x0 - x), x1 - x0);
+                }
+            }
+        }
+    }
+
+    /** Sets every pixel of [x, x+w)×[y, y+h) to {@code argb}. */
+    public void fill(int x, int y, int w, int h, int argb) throws IOException {
+        int[] row = new int[w];
+        Arrays.fill(row, argb);
+        for (int yy = y; yy < y + h; yy++) writeRegion(x, yy, w, 1, row, 0, w);
+    }
+
+    private void checkRegion(int x, int y, int w, int h) {
+        if (x < 0 || y < 0 || w <= 0 || h <= 0 || x + w > width || y + h > height) {
+            throw new IllegalArgumentException(String.format(
+                "Region (%d,%d) %d×%d is outside the %d×%d image", x, y, w, h, width, height));
+        }
+    }
+
+    // ── RenderedImage ─────────────────────────────────────────────────────
+
+    @Override public int getWidth()  { return width;  }
+    @Override public int getHeight() { return height; }
+    @Override public int getMinX() { return 0; }
+    @Override public int getMinY() { return 0; }
+    @Override public int getNumXTiles() { return tilesX; }
+    @Override public int getNumYTiles() { return tilesY; }
+    @Override public int getMinTileX() { return 0; }
+    @Override public int getMinTileY() { return 0; }
+    @Override public int getTileWidth()  { return tileSize; }
+    @Override public int getTileHeight() { return tileSize; }
+    @Override public int getTileGridXOffset() { return 0; }
+    @Override public int getTileGridYOffset() { return 0; }
+    @Override public Vector<RenderedImage> getSources() { return null; }
+    @Override public Object getProperty(String name) { return Image.UndefinedProperty; }
+    @Override public String[] getPropertyNames() { return null; }
+
+    @Override
+    public ColorModel getColorModel() {
+        return alpha ? ColorModel.getRGBdefault()
+                     : new DirectColorModel(24, RGB_MASKS[0], RGB_MASKS[1], RGB_MASKS[2]);
+    }
+
+    @Override
+    public SampleModel getSampleModel() {
+        return new SinglePixelPackedSampleModel(DataBuffer.TYPE_INT, tileSize, tileSize,
+                                                alpha ? ARGB_MASKS : RGB_MASKS);
+    }
+
+    @Override
+    public Raster getTile(int tx, int ty) {
+        return getData(new Rectangle(tx * tileSize, ty * tileSize, tileSize, tileSize)
+                           .intersection(new Rectangle(width, height)));
+    }
+
+    /** Copies the whole image to the heap; avoid for large images. */
+    @Override
+    public Raster getData() {
+        return getData(new Rectangle(width, height));
+    }
+
+    @Override
+    public Raster getData(Rectangle rect) {
+        return copyData(Raster.createPackedRaster(DataBuffer.TYPE_INT, rect.width, rect.height,
+                                                  alpha ? ARGB_MASKS : RGB_MASKS,
+                                                  new Point(rect.x, rect.y)));
+    }
+
+    @Override
+    public WritableRaster copyData(WritableRaster raster) {
+        if (raster == null) raster = (WritableRaster) getData();
+        Rectangle r = raster.getBounds().intersection(new Rectangle(width, height));
+        if (r.isEmpty()) return raster;
+        try {
+            if (raster.getDataBuffer() instanceof DataBufferInt db
+                    && raster.getSampleModel() instanceof SinglePixelPackedSampleModel sm
+                    && db.getNumBanks() == 1 && db.getOffset() == 0
+                    && raster.getSampleModelTranslateX() == -raster.getMinX()
+                    && raster.getSampleModelTranslateY() == -raster.getMinY()) {
+                int scan = sm.getScanlineStride();
+                readRegion(r.x, r.y, r.width, r.height, db.getData(),
+                           (r.y - raster.getMinY()) * scan + (r.x - raster.getMinX()), scan);
+            } else {
+                int[] row = new int[r.width];
+                for (int y = r.y; y < r.y + r.height; y++) {
+                    readRegion(r.x, y, r.width, 1, row, 0, r.width);
+                    raster.setDataElements(r.x, y, r.width, 1, row);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return raster;
+    }
+
+    // ── Closing ───────────────────────────────────────────────────────────
+
+    /**
+     * Unmaps the file and closes it (deleting it if temporary).  Tile
+     * buffers handed out earlier must not be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        Arrays.fill(tiles, null);
+        for (int c = 0; c < chunks.length; c++) {
+            if (chunks[c] != null) unmap(chunks[c]);
+            chunks[c] = null;
+        }
+        channel.close();
+        if (deleteOnClose) Files.deleteIfExists(file);
+    }
+
+    // ── Unmapping ─────────────────────────────────────────────────────────
+
+    // Unmapping is only public through sun.misc.Unsafe (jdk.unsupported);
+    // where it is missing, mappings are released by the garbage collector.
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+    static {
+        Method cleaner = null;
+        Object unsafe = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe  = field.get(null);
+            cleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            cleaner = null;
+        }
+        INVOKE_CLEANER = cleaner;
+        UNSAFE = unsafe;
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            // leave it to the garbage collector
+        }
+    }
+}
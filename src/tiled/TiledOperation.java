@@ -0,0 +1,27 @@
+package tiled;
+
+import java.io.IOException;
+
+/**
+ * TiledOperation.java
+ * -------------------
+ * Opt-in capability for operations that can run on a {@link TiledImage},
+ * touching it tile by tile so only a bounded number of pixels is ever on
+ * the heap.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public interface TiledOperation {
+
+    /**
+     * Applies the operation to {@code image}.
+     *
+     * @param image image to process; operations that keep the size modify it
+     *              in place
+     * @return {@code image} itself, or a new TiledImage if the size changed
+     *         (the caller then owns and must close both)
+     * @throws IOException if a tile file cannot be created or mapped
+     */
+    TiledImage applyTiled(TiledImage image) throws IOException;
+}
@@ -0,0 +1,64 @@
+package operations;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorInvertKernel.java
+ * -----------------------
+ * {@link InvertKernel} on the Vector API: each step XORs a whole SIMD
+ * register (e.g. 16 ints or 64 bytes with AVX-512), and the remainder of
+ * the span goes through the scalar loop.
+ *
+ * Lives in its own source root because {@code jdk.incubator.vector} is an
+ * incubator module that needs flags at both compile and run time:
+ *
+ *   javac --add-modules jdk.incubator.vector -cp bin -d bin vector/operations/*.java
+ *   java  --add-modules jdk.incubator.vector -cp bin Main
+ *
+ * Without them InvertKernel simply falls back to {@link InvertKernel#SCALAR}.
+ *
+ * Multimedia & Computer Graphics – First Partial
+ * Universidad Panamericana | 2026
+ */
+public final class VectorInvertKernel implements InvertKernel {
+
+    private static final VectorSpecies<Integer> INTS  = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte>    BYTES = ByteVector.SPECIES_PREFERRED;
+    /** The two masks InvertOperation uses, built once. */
+    private static final ByteVector ALL = pattern(-1), RGB = pattern(0x00FFFFFF);
+
+    @Override
+    public void xor(int[] data, int from, int to, int mask) {
+        IntVector m = IntVector.broadcast(INTS, mask);
+        int i = from;
+        for (int end = from + INTS.loopBound(to - from); i < end; i += INTS.length()) {
+            IntVector.fromArray(INTS, data, i).lanewise(VectorOperators.XOR, m).intoArray(data, i);
+        }
+        SCALAR.xor(data, i, to, mask);
+    }
+
+    @Override
+    public void xor(byte[] data, int from, int to, int mask) {
+        // The lane count is a multiple of 4, so every vector starts on a mask boundary
+        ByteVector m = mask == -1 ? ALL : mask == 0x00FFFFFF ? RGB : pattern(mask);
+        int i = from;
+        for (int end = from + BYTES.loopBound(to - from); i < end; i += BYTES.length()) {
+            ByteVector.fromArray(BYTES, data, i).lanewise(VectorOperators.XOR, m).intoArray(data, i);
+        }
+        SCALAR.xor(data, i, to, mask);   // i - from is a multiple of 4 here too
+    }
+
+    @Override
+    public String name() {
+        return "vector " + BYTES.vectorBitSize() + "-bit";
+    }
+
+    private static ByteVector pattern(int mask) {
+        byte[] p = new byte[BYTES.length()];
+        for (int k = 0; k < p.length; k++) p[k] = (byte) (mask >>> (24 - 8 * (k & 3)));
+        return ByteVector.fromArray(BYTES, p, 0);
+    }
+}